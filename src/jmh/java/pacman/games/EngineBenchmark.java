@@ -0,0 +1,107 @@
+package pacman.games;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the headless simulation paths: one tick, a full reset, one ghost move, and the
+ * snapshot operations a tree search forks states with.
+ * Run with: java -jar target/benchmarks.jar EngineBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+
+    @Param({"RANDOM", "CHASE_SCATTER"})
+    public GhostBehaviour behaviour;
+
+    private GameEngine engine;
+    private GhostStore ghosts;
+    private GameSnapshot root; // A mid-game position to fork from
+    private int inputCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new GameEngine(1L);
+        engine.setGhostBehaviour(behaviour);
+        engine.start();
+        ghosts = engine.getGhosts();
+        for (int i = 0; i < 50; i++) {
+            engine.step(i % 10 == 0 ? (i / 10) & 3 : GameEngine.NO_INPUT);
+        }
+        root = engine.snapshot();
+        engine.reset();
+        engine.start();
+    }
+
+    /**
+     * One updateGame() tick, restarting the game whenever it ends.
+     * Pac-Man turns every eighth tick so the board keeps changing.
+     */
+    @Benchmark
+    public long tick() {
+        if (!engine.isRunning()) {
+            engine.reset();
+            engine.start();
+        }
+        int i = inputCounter++;
+        engine.step((i & 7) == 0 ? (i >>> 3) & 3 : GameEngine.NO_INPUT);
+        return engine.getTick();
+    }
+
+    /**
+     * Cost of resetting a game to its starting state (the old initializeGame()).
+     */
+    @Benchmark
+    public int reset() {
+        engine.reset(inputCounter++);
+        return engine.getPelletsRemaining();
+    }
+
+    /**
+     * Ghost-move selection on its own: pick a legal direction for the behaviour and move.
+     * moveGhost() also updates the ghost grid, so CHASE_SCATTER keeps seeing where the ghosts are.
+     */
+    @Benchmark
+    public int ghostMove() {
+        engine.moveGhost(0);
+        return ghosts.x[0] + ghosts.y[0];
+    }
+
+    /**
+     * Forking a search node: snapshot the current state, then go back to it.
+     */
+    @Benchmark
+    public GameSnapshot snapshotRestore() {
+        GameSnapshot snapshot = engine.snapshot();
+        engine.restore(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * One rollout step from a fixed position: restore it, then tick. Eating a pellet
+     * copies the shared pellet bitset first.
+     */
+    @Benchmark
+    public long restoreAndTick() {
+        engine.restore(root);
+        engine.step(inputCounter++ & 3);
+        return engine.getTick();
+    }
+}
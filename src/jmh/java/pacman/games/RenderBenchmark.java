@@ -0,0 +1,67 @@
+package pacman.games;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks drawing one frame into an offscreen BufferedImage, the way GamePanel
+ * paints: fill the wall background, then let GameRenderer draw on top.
+ * The crowded maze has 40 ghosts, so actor drawing dominates its frames.
+ * Runs headless, so no display is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+    @Param({"classic", "classic:40"})
+    public String mazeId;
+
+    private GameRenderer renderer;
+    private BufferedImage image;
+    private Graphics2D graphics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameEngine engine = new GameEngine(Maze.forId(mazeId), 1L);
+        engine.start();
+        // Play a few ticks so the frame shows a game in progress rather than the start screen
+        for (int i = 0; i < 40; i++) {
+            engine.step(GameEngine.NO_INPUT);
+        }
+        renderer = new GameRenderer(engine);
+        image = new BufferedImage(renderer.getWidth(), renderer.getHeight(), BufferedImage.TYPE_INT_RGB);
+        graphics = image.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage draw() {
+        graphics.setColor(GameRenderer.WALL_COLOR);
+        graphics.fillRect(0, 0, renderer.getWidth(), renderer.getHeight());
+        renderer.draw(graphics);
+        return image;
+    }
+}
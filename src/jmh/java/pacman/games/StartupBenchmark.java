@@ -0,0 +1,75 @@
+package pacman.games;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures cold start: launches the packaged game in fresh JVMs with --exit-after-first-frame
+ * and reports the time to the first frame (as the game measures it, from JVM start) and
+ * the wall-clock time of the whole process, with the JDK's default CDS archive, without
+ * any CDS, and with the AppCDS archive of mvn -Pappcds package if it exists.
+ * JMH cannot measure this: each sample needs a new JVM.
+ * Run with: java -cp target/benchmarks.jar pacman.games.StartupBenchmark [runs] [jar] [archive]
+ */
+public class StartupBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        Path jar = Paths.get(args.length > 1 ? args[1] : "target/java-pacman-1.0-SNAPSHOT.jar");
+        Path archive = Paths.get(args.length > 2 ? args[2] : "target/pacman.jsa");
+
+        measure("default CDS", runs, jar);
+        measure("no CDS", runs, jar, "-Xshare:off");
+        if (Files.exists(archive)) {
+            measure("AppCDS", runs, jar, "-XX:SharedArchiveFile=" + archive, "-Xlog:cds=off");
+        } else {
+            System.out.println("No " + archive + "; build it with mvn -Pappcds package");
+        }
+    }
+
+    private static void measure(String name, int runs, Path jar, String... jvmOptions)
+            throws IOException, InterruptedException {
+        long[] firstFrame = new long[runs];
+        long[] process = new long[runs];
+        launch(jar, jvmOptions); // Warms the OS file cache
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            firstFrame[i] = launch(jar, jvmOptions);
+            process[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+        Arrays.sort(firstFrame);
+        Arrays.sort(process);
+        System.out.printf("%-12s first frame median %4d ms (min %4d), process median %4d ms (min %4d)%n",
+                name, firstFrame[runs / 2], firstFrame[0], process[runs / 2], process[0]);
+    }
+
+    // Runs the game to its first frame and returns the time it reported
+    private static long launch(Path jar, String... jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmOptions));
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--exit-after-first-frame");
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        long millis = -1;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            for (String line = out.readLine(); line != null; line = out.readLine()) {
+                if (line.startsWith("First frame after ")) {
+                    millis = Long.parseLong(line.substring("First frame after ".length(), line.length() - " ms".length()));
+                }
+            }
+        }
+        if (process.waitFor() != 0 || millis < 0) {
+            throw new IOException("Game did not report its first frame: " + command);
+        }
+        return millis;
+    }
+}
@@ -0,0 +1,59 @@
+package pacman.games;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation on the GameEngine tick path.
+ * Steps warmed-up games with a scripted controller and sums the bytes the current thread
+ * allocates inside step() only; resets between games are not counted. Exits with status 1
+ * if any tick allocated, so it can guard the zero-allocation movement path in scripts.
+ */
+public class TickAllocationBenchmark {
+
+    public static void main(String[] args) {
+        int warmupTicks = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        int measuredTicks = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        GhostBehaviour ghosts = args.length > 2 ? GhostBehaviour.valueOf(args[2]) : GhostBehaviour.RANDOM;
+
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        GameEngine engine = new GameEngine(1L);
+        engine.setGhostBehaviour(ghosts);
+        engine.start();
+        runTicks(engine, warmupTicks, threads); // Let the JIT compile the tick path first
+
+        long start = System.nanoTime();
+        long allocated = runTicks(engine, measuredTicks, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d ticks, %d bytes allocated (%.3f bytes/tick), %.0f ticks/s%n",
+                measuredTicks, allocated, (double) allocated / measuredTicks, measuredTicks / seconds);
+        if (allocated > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Steps the engine, restarting finished games, and returns the bytes allocated inside step().
+     */
+    private static long runTicks(GameEngine engine, int ticks, com.sun.management.ThreadMXBean threads) {
+        long allocated = 0;
+        int input = GameEngine.UP;
+        for (int i = 0; i < ticks; i++) {
+            if (!engine.isRunning()) {
+                engine.reset(i);
+                engine.start();
+            }
+            // Cycle through the directions on a fixed cadence so Pac-Man keeps moving
+            if ((i & 7) == 0) {
+                input = (input + 1) & 3;
+            }
+            long before = threads.getCurrentThreadAllocatedBytes();
+            engine.step((i & 7) == 0 ? input : GameEngine.NO_INPUT);
+            allocated += threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        return allocated;
+    }
+}
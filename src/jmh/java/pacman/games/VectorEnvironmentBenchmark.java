@@ -0,0 +1,59 @@
+package pacman.games;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of VectorEnvironment in game steps per second, observations included.
+ * Run with: java -jar target/benchmarks.jar VectorEnvironmentBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorEnvironmentBenchmark {
+
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"RANDOM", "CHASE_SCATTER"})
+    public GhostBehaviour behaviour;
+
+    private VectorEnvironment environment;
+    private final int[] actions = new int[BATCH_SIZE];
+    private int inputCounter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        environment = new VectorEnvironment(BATCH_SIZE, Maze.CLASSIC, behaviour, 5000);
+        environment.reset(1L);
+    }
+
+    /**
+     * One step of the whole batch; every game turns every eighth tick, each on its own phase.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public float step() {
+        int i = inputCounter++;
+        for (int k = 0; k < BATCH_SIZE; k++) {
+            actions[k] = ((i + k) & 7) == 0 ? ((i + k) >>> 3) & 3 : GameEngine.NO_INPUT;
+        }
+        environment.step(actions);
+        return environment.getRewards()[i & (BATCH_SIZE - 1)];
+    }
+}
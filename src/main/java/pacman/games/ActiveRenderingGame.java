@@ -0,0 +1,262 @@
+package pacman.games;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.awt.image.BufferStrategy;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Alternative to GamePanel's Swing timer loop.
+ * A dedicated thread advances the engine on a fixed timestep of GameEngine.TICK_MILLIS and,
+ * independently, renders with a BufferStrategy at the display's refresh rate, drawing
+ * actors interpolated between their previous and current tiles. Slow frames or timer jitter
+ * no longer change the game speed, and movement is smooth instead of one tile per tick.
+ * Start it with --loop=active.
+ */
+class ActiveRenderingGame extends JFrame implements Runnable {
+
+    private static final long TICK_NANOS = GameEngine.TICK_MILLIS * 1_000_000L;
+    private static final int MAX_TICKS_PER_FRAME = 5; // Drop time rather than spiral after a long stall
+    private static final int DEFAULT_REFRESH_RATE = 60; // Used when the display does not report one
+
+    private final Canvas canvas;
+    private final GameEngine engine; // Only touched by the loop thread
+    private final GameRenderer renderer; // Only touched by the loop thread
+    private final Random seedSource; // Supplies the engine seed for each new game
+    private final long frameNanos; // Target time per rendered frame
+    private final GameMetrics metrics; // Recorded by the loop thread
+    private final MetricsOverlay overlay;
+    private final GameOptions options;
+    private boolean firstFrameShown; // Loop thread only
+
+    // Hand-off from the EDT (key presses) to the loop thread
+    private final InputQueue inputs = new InputQueue(16);
+    private final AtomicBoolean restartRequested = new AtomicBoolean();
+    private volatile boolean stopped;
+    private Thread loop;
+
+    /**
+     * Creates the window; call {@link #start()} once it is visible.
+     * @param options Maze, ghost behaviour and the source of each game's seed.
+     */
+    public ActiveRenderingGame(GameOptions options) {
+        this.options = options;
+        this.seedSource = options.getSeedSource();
+        engine = options.newEngine();
+        renderer = new GameRenderer(engine);
+        metrics = new GameMetrics(engine); // Registered with JMX after the first frame
+        overlay = new MetricsOverlay(metrics);
+
+        canvas = new Canvas();
+        canvas.setPreferredSize(new Dimension(renderer.getWidth(), renderer.getHeight()));
+        canvas.setIgnoreRepaint(true); // All drawing happens on the loop thread
+        canvas.addKeyListener(new MyKeyAdapter());
+        this.add(canvas);
+
+        this.setTitle("Pac-Man");
+        this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        this.setIgnoreRepaint(true);
+        this.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                stopAndSaveRecording();
+            }
+        });
+        this.setResizable(false);
+        this.pack();
+        this.setLocationRelativeTo(null);
+        this.setVisible(true);
+
+        int refreshRate = getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+        if (refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN) {
+            refreshRate = DEFAULT_REFRESH_RATE;
+        }
+        frameNanos = 1_000_000_000L / refreshRate;
+    }
+
+    /**
+     * Creates the buffer strategy and starts the loop thread.
+     */
+    public void start() {
+        canvas.createBufferStrategy(2);
+        canvas.requestFocusInWindow();
+        engine.start();
+        commitGameStart();
+        loop = new Thread(this, "pacman-loop");
+        loop.setDaemon(true);
+        loop.start();
+    }
+
+    private void commitGameStart() {
+        GameEvents.GameStart event = new GameEvents.GameStart();
+        if (event.shouldCommit()) {
+            event.seed = engine.getSeed();
+            event.maze = engine.getMaze().getId();
+            event.ghosts = engine.getGhosts().size();
+            event.commit();
+        }
+    }
+
+    /**
+     * The game loop: fixed-timestep logic, rendering at the refresh rate in between.
+     */
+    @Override
+    public void run() {
+        BufferStrategy strategy = canvas.getBufferStrategy();
+        long previous = System.nanoTime();
+        long accumulator = 0; // Simulated time owed to the engine
+
+        while (!stopped) {
+            long frameStart = System.nanoTime();
+            accumulator += frameStart - previous;
+            previous = frameStart;
+
+            if (restartRequested.getAndSet(false) && !engine.isRunning()) {
+                metrics.beforeReset();
+                GameEvents.GameRestart restart = new GameEvents.GameRestart();
+                if (restart.shouldCommit()) {
+                    restart.tick = engine.getTick();
+                    restart.score = engine.getScore();
+                    restart.commit();
+                }
+                engine.reset(seedSource.nextLong());
+                engine.start();
+                commitGameStart();
+                accumulator = 0;
+            }
+            // Every key pressed since the last frame steers, in order, before the next tick
+            for (int input = inputs.poll(); input != GameEngine.NO_INPUT; input = inputs.poll()) {
+                engine.steer(input);
+            }
+
+            int ticks = 0;
+            while (accumulator >= TICK_NANOS) {
+                if (ticks++ == MAX_TICKS_PER_FRAME) {
+                    accumulator = 0;
+                    break;
+                }
+                GameEvents.Tick event = new GameEvents.Tick();
+                event.begin();
+                metrics.beginTick();
+                engine.step(GameEngine.NO_INPUT);
+                metrics.endTick();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.tick = engine.getTick();
+                    event.score = engine.getScore();
+                    event.commit();
+                }
+                accumulator -= TICK_NANOS;
+            }
+
+            double alpha = engine.isRunning() ? (double) accumulator / TICK_NANOS : 1.0;
+            render(strategy, alpha);
+
+            // Sleep off the rest of the frame; BufferStrategy.show() may already have waited for vsync
+            long sleepNanos = frameNanos - (System.nanoTime() - frameStart);
+            if (sleepNanos > 0) {
+                try {
+                    Thread.sleep(sleepNanos / 1_000_000L, (int) (sleepNanos % 1_000_000L));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Draws one frame into the back buffer and shows it, retrying if the buffer was lost.
+     */
+    private void render(BufferStrategy strategy, double alpha) {
+        do {
+            do {
+                Graphics g = strategy.getDrawGraphics();
+                try {
+                    g.setColor(GameRenderer.WALL_COLOR);
+                    g.fillRect(0, 0, renderer.getWidth(), renderer.getHeight());
+                    GameEvents.Paint event = new GameEvents.Paint();
+                    event.begin();
+                    metrics.beginPaint();
+                    renderer.draw(g, alpha);
+                    metrics.endPaint();
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.tick = engine.getTick();
+                        event.commit();
+                    }
+                    overlay.draw(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();
+        if (!firstFrameShown) {
+            firstFrameShown = true;
+            PacManGame.firstFrameShown(options, metrics);
+        }
+    }
+
+    /**
+     * Stops the loop thread after its current frame.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Stops the loop, waits for it to let go of the engine, then finishes the recording file
+     * if the game is being recorded.
+     */
+    private void stopAndSaveRecording() {
+        stop();
+        try {
+            if (loop != null) {
+                loop.join();
+            }
+            engine.stopRecording();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Could not save the recording: " + e);
+        }
+    }
+
+    /**
+     * Inner class to handle keyboard input. Runs on the EDT and only hands input over.
+     */
+    public class MyKeyAdapter extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_LEFT:
+                    inputs.offer(GameEngine.LEFT);
+                    break;
+                case KeyEvent.VK_RIGHT:
+                    inputs.offer(GameEngine.RIGHT);
+                    break;
+                case KeyEvent.VK_UP:
+                    inputs.offer(GameEngine.UP);
+                    break;
+                case KeyEvent.VK_DOWN:
+                    inputs.offer(GameEngine.DOWN);
+                    break;
+                case KeyEvent.VK_F3:
+                    overlay.toggle();
+                    break;
+                case KeyEvent.VK_ENTER:
+                case KeyEvent.VK_R:
+                    restartRequested.set(true); // Replaces the Retry button
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package pacman.games;
+
+/**
+ * Aggregated outcome of a batch of games.
+ * Mutable accumulator in the style of IntSummaryStatistics, so it can be used as a
+ * parallel stream collector.
+ */
+class BatchResult {
+    private int games;
+    private int wins;
+    private int losses;
+    private int timeouts; // Games cut off by the tick limit
+    private long totalScore;
+    private long totalPelletsEaten;
+    private long totalLivesLost;
+    private long totalTicks;
+    private long totalTicksToWin; // Ticks summed over won games only
+
+    /**
+     * Records one finished game.
+     */
+    public void add(GameEngine engine) {
+        games++;
+        if (engine.isGameWon()) {
+            wins++;
+            totalTicksToWin += engine.getTick();
+        } else if (engine.isGameOver()) {
+            losses++;
+        } else {
+            timeouts++;
+        }
+        totalScore += engine.getScore();
+        totalPelletsEaten += engine.getPelletsEaten();
+        totalLivesLost += engine.getLivesLost();
+        totalTicks += engine.getTick();
+    }
+
+    /**
+     * Merges another partial result into this one.
+     */
+    public void combine(BatchResult other) {
+        games += other.games;
+        wins += other.wins;
+        losses += other.losses;
+        timeouts += other.timeouts;
+        totalScore += other.totalScore;
+        totalPelletsEaten += other.totalPelletsEaten;
+        totalLivesLost += other.totalLivesLost;
+        totalTicks += other.totalTicks;
+        totalTicksToWin += other.totalTicksToWin;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public int getWins() {
+        return wins;
+    }
+
+    public int getLosses() {
+        return losses;
+    }
+
+    public int getTimeouts() {
+        return timeouts;
+    }
+
+    public long getTotalScore() {
+        return totalScore;
+    }
+
+    public long getTotalPelletsEaten() {
+        return totalPelletsEaten;
+    }
+
+    public long getTotalLivesLost() {
+        return totalLivesLost;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    public double getAverageScore() {
+        return games == 0 ? 0 : (double) totalScore / games;
+    }
+
+    public double getAverageTicksToWin() {
+        return wins == 0 ? 0 : (double) totalTicksToWin / wins;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d wins=%d losses=%d timeouts=%d avgScore=%.1f avgPellets=%.1f"
+                        + " avgLivesLost=%.2f avgTicks=%.1f avgTicksToWin=%.1f",
+                games, wins, losses, timeouts, getAverageScore(),
+                games == 0 ? 0 : (double) totalPelletsEaten / games,
+                games == 0 ? 0 : (double) totalLivesLost / games,
+                games == 0 ? 0 : (double) totalTicks / games,
+                getAverageTicksToWin());
+    }
+}
@@ -0,0 +1,170 @@
+package pacman.games;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.LongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Plays many independent headless games in parallel and aggregates their results.
+ * Every game gets its own GameEngine (and so its own copy of the board) and its own seed,
+ * so games share nothing and the batch scales with the number of cores.
+ */
+public class BatchSimulator {
+
+    /**
+     * Decides Pac-Man's input for the next tick.
+     */
+    public interface Controller {
+        /**
+         * @param engine The game being played, before the tick is applied.
+         * @return One of GameEngine.UP, DOWN, LEFT, RIGHT or NO_INPUT.
+         */
+        int nextInput(GameEngine engine);
+    }
+
+    private final int maxTicks; // Games still running after this many ticks count as timed out
+    private final LongFunction<Controller> controllers; // Creates the controller for a game from its seed
+    private final Maze maze; // Maze every game is played on
+    private final GhostBehaviour ghostBehaviour; // How the ghosts of every game move
+
+    /**
+     * @param maxTicks Tick limit per game.
+     * @param controllers Creates a fresh controller for each game, given that game's seed.
+     */
+    public BatchSimulator(int maxTicks, LongFunction<Controller> controllers) {
+        this(maxTicks, controllers, Maze.CLASSIC, GhostBehaviour.RANDOM);
+    }
+
+    /**
+     * @param maxTicks Tick limit per game.
+     * @param controllers Creates a fresh controller for each game, given that game's seed.
+     * @param maze Maze to play every game on; its distance tables are shared by all games.
+     * @param ghostBehaviour Ghost AI to play every game with, for comparing AI variants.
+     */
+    public BatchSimulator(int maxTicks, LongFunction<Controller> controllers, Maze maze, GhostBehaviour ghostBehaviour) {
+        this.maxTicks = maxTicks;
+        this.controllers = controllers;
+        this.maze = maze;
+        this.ghostBehaviour = ghostBehaviour;
+    }
+
+    /**
+     * Plays the given number of games on a pool with the given parallelism.
+     * The result depends only on the arguments, not on the parallelism or scheduling.
+     * @param games Number of games to play.
+     * @param baseSeed Seed the per-game seeds are derived from.
+     * @param parallelism Number of worker threads.
+     * @return The aggregated result of all games.
+     */
+    public BatchResult run(int games, long baseSeed, int parallelism) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> IntStream.range(0, games)
+                    .parallel()
+                    .collect(BatchResult::new,
+                            (result, i) -> result.add(play(gameSeed(baseSeed, i))),
+                            BatchResult::combine))
+                    .join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Plays a single game to completion or to the tick limit.
+     * @param seed Seed for both the engine and the controller.
+     * @return The finished engine, for reading its counters.
+     */
+    public GameEngine play(long seed) {
+        GameEngine engine = new GameEngine(maze, seed);
+        engine.setGhostBehaviour(ghostBehaviour);
+        Controller controller = controllers.apply(seed);
+        engine.start();
+        while (engine.isRunning() && engine.getTick() < maxTicks) {
+            engine.step(controller.nextInput(engine));
+        }
+        return engine;
+    }
+
+    // Spreads consecutive game indexes over the seed space (golden-ratio increment)
+    static long gameSeed(long baseSeed, long index) {
+        return baseSeed + index * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * A controller that keeps going straight and turns to a random direction
+     * on roughly one tick in four. Good enough to clear part of the maze.
+     * @param seed Seed for the controller's own RNG.
+     */
+    public static Controller randomTurns(long seed) {
+        Random random = new Random(~seed);
+        return engine -> random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT;
+    }
+
+    private static final int LOOKAHEAD_TICKS = 24; // How far each candidate direction is played out
+
+    /**
+     * A search bot built on snapshots. Before each tick it snapshots the game, plays every
+     * direction out for LOOKAHEAD_TICKS ticks on the engine itself, restores the snapshot
+     * and picks the direction with the best outcome (points, minus a life's worth for each
+     * life lost). Rollouts see the seeded ghosts exactly as they will move, so it shows
+     * what the game state API allows rather than fair play.
+     * @param seed Seed for breaking ties between equally good directions.
+     */
+    public static Controller lookahead(long seed) {
+        Random random = new Random(~seed);
+        return engine -> {
+            GameSnapshot root = engine.snapshot();
+            int first = random.nextInt(4); // Start at a random direction so ties do not always go up
+            int best = GameEngine.NO_INPUT;
+            int bestValue = Integer.MIN_VALUE;
+            for (int i = 0; i < 4; i++) {
+                int direction = (first + i) & 3;
+                engine.steer(direction);
+                for (int t = 0; t < LOOKAHEAD_TICKS && engine.isRunning(); t++) {
+                    engine.step(GameEngine.NO_INPUT);
+                }
+                int value = engine.getScore() - 1000 * (engine.getLivesLost() - root.livesLost);
+                if (value > bestValue) {
+                    best = direction;
+                    bestValue = value;
+                }
+                engine.restore(root);
+            }
+            return best;
+        };
+    }
+
+    /**
+     * Runs a batch from the command line.
+     * @param args [games] [seed] [threads] [maxTicks] [RANDOM|CHASE_SCATTER] [classic|WxH] [ghosts]
+     *             [randomTurns|lookahead]
+     *             A size generates a maze from the seed; without one the classic maze is used.
+     */
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1L;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int maxTicks = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        GhostBehaviour behaviour = args.length > 4 ? GhostBehaviour.valueOf(args[4]) : GhostBehaviour.RANDOM;
+        Maze maze = Maze.CLASSIC;
+        if (args.length > 5 && !args[5].equals("classic")) {
+            String[] size = args[5].split("x");
+            int ghosts = args.length > 6 ? Integer.parseInt(args[6]) : 4;
+            maze = MazeGenerator.generate(Integer.parseInt(size[0]), Integer.parseInt(size[1]), ghosts, seed);
+        }
+
+        LongFunction<Controller> controllers = args.length > 7 && args[7].equals("lookahead")
+                ? BatchSimulator::lookahead : BatchSimulator::randomTurns;
+
+        BatchSimulator simulator = new BatchSimulator(maxTicks, controllers, maze, behaviour);
+        long start = System.nanoTime();
+        BatchResult result = simulator.run(games, seed, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(result);
+        System.out.printf("%d games on %d threads in %.2f s (%.0f ticks/s)%n",
+                games, threads, seconds, result.getTotalTicks() / seconds);
+    }
+}
@@ -0,0 +1,70 @@
+package pacman.games;
+
+import java.util.Arrays;
+
+/**
+ * Shortest-path distances (in tiles) from every cell of a maze to one target cell,
+ * computed by breadth-first search over the maze's precomputed move masks.
+ * The arrays are allocated once, so the field can be recomputed for a new target
+ * without allocating.
+ */
+final class DistanceField {
+
+    static final int UNREACHABLE = Integer.MAX_VALUE; // Distance of walls and cut-off cells
+
+    private final Maze maze;
+    private final int[] distances;
+    private final int[] queue; // BFS queue, each reachable cell is enqueued once
+    private final int[] offsets; // Cell index offset per direction
+    private int target = -1;
+
+    DistanceField(Maze maze) {
+        this.maze = maze;
+        distances = new int[maze.getCellCount()];
+        queue = new int[maze.getCellCount()];
+        offsets = new int[4];
+        for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+            offsets[d] = GameEngine.DIRECTION_DX[d] + GameEngine.DIRECTION_DY[d] * maze.getCols();
+        }
+    }
+
+    /**
+     * Recomputes the distances to a new target cell.
+     */
+    void compute(int target) {
+        this.target = target;
+        Arrays.fill(distances, UNREACHABLE);
+        distances[target] = 0;
+        queue[0] = target;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int cell = queue[head++];
+            int next = distances[cell] + 1;
+            int moves = maze.getMoves(cell);
+            for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                if ((moves & (1 << d)) != 0) {
+                    int neighbour = cell + offsets[d];
+                    if (distances[neighbour] == UNREACHABLE) {
+                        distances[neighbour] = next;
+                        queue[tail++] = neighbour;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the cell distances were last computed to, or -1 if never computed.
+     */
+    int getTarget() {
+        return target;
+    }
+
+    /**
+     * Returns the distance from cell to the target, or UNREACHABLE.
+     */
+    int get(int cell) {
+        return distances[cell];
+    }
+}
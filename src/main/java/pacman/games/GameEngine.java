@@ -0,0 +1,690 @@
+package pacman.games;
+
+import java.io.IOException;
+
+/**
+ * Headless Pac-Man simulation.
+ * Holds the board, Pac-Man, the ghosts and the score, and advances the game
+ * one tick per call to {@link #step(int)}. It has no dependency on AWT or Swing,
+ * so games can be simulated as fast as the CPU allows; GamePanel is just a view over it.
+ * Ghost moves come from a seeded RNG and all timers count ticks, so the same seed and
+ * inputs always produce the same game regardless of how fast it is stepped.
+ */
+class GameEngine {
+
+    // --- Game Constants ---
+    static final int TICK_MILLIS = 150; // Real-time length of one tick in milliseconds
+    static final int POWER_PELLET_FRIGHTEN_TIME = 8000; // 8 seconds in milliseconds
+    static final int POWER_PELLET_FRIGHTEN_TICKS = POWER_PELLET_FRIGHTEN_TIME / TICK_MILLIS; // Same window counted in ticks
+
+    // --- Inputs accepted by step() and steer() ---
+    static final int NO_INPUT = -1;
+    static final int UP = 0;
+    static final int DOWN = 1;
+    static final int LEFT = 2;
+    static final int RIGHT = 3;
+
+    // Direction vectors indexed by UP, DOWN, LEFT, RIGHT
+    static final int[] DIRECTION_DX = {0, 0, -1, 1};
+    static final int[] DIRECTION_DY = {-1, 1, 0, 0};
+
+    // --- Ghost AI Constants (CHASE_SCATTER) ---
+    static final int SCATTER_TICKS = 7000 / TICK_MILLIS; // 7 seconds heading for their corners...
+    static final int CHASE_TICKS = 20000 / TICK_MILLIS; // ...then 20 seconds chasing Pac-Man
+
+    // --- Game State Variables ---
+    private final Maze maze; // Walls, start points and legal moves, shared with other games
+    private long[] pellets; // Bit per cell: pellet or power pellet still on the board
+    private boolean pelletsShared; // pellets belongs to a snapshot too: copy before writing
+    private PacMan pacMan;
+    private int queuedTurn = NO_INPUT; // Turn asked for while blocked by a wall, taken at the next opening
+    private final GhostStore ghosts;
+    private final OccupancyGrid ghostGrid; // Ghosts by cell, for collision checks
+    private int score;
+    private int pelletsRemaining;
+    private long tick; // Number of ticks played since the last reset
+    private int pelletsEaten; // Pellets and power pellets eaten since the last reset
+    private int livesLost; // Lives lost since the last reset
+    private int ghostsEaten; // Frightened ghosts eaten since the last reset
+    private long seed; // Seed the ghost RNG was started from
+    private final GameRandom random = new GameRandom(0);
+
+    private boolean running = false;
+    private boolean gameOver = false;
+    private boolean gameWon = false;
+
+    private GhostBehaviour ghostBehaviour = GhostBehaviour.RANDOM;
+    private DistanceField pacManField; // Distances to Pac-Man, only for mazes without an all-pairs table
+    private InputRecorder recorder; // Logs every game's seed and inputs, if recording
+
+    // --- Changes made by the last step(), for incremental repainting ---
+    private final int[] dirtyCells; // Cells whose drawing changed: actor positions before and after, eaten pellets
+    private int dirtyCellCount;
+    private boolean hudDirty; // Score or lives changed
+    private boolean fullRepaint; // Everything must be redrawn (new game, end screen, too many changes)
+
+    /**
+     * Creates an engine on the classic maze with a fresh game ready to be started.
+     * @param seed Seed for the ghost RNG; the same seed and inputs replay the same game.
+     */
+    public GameEngine(long seed) {
+        this(Maze.CLASSIC, seed);
+    }
+
+    /**
+     * Creates an engine with a fresh game ready to be started.
+     * @param maze The maze to play on.
+     * @param seed Seed for the ghost RNG; the same seed and inputs replay the same game.
+     */
+    public GameEngine(Maze maze, long seed) {
+        this.maze = maze;
+        pellets = maze.newPelletBits();
+        int start = maze.getPacManStart();
+        pacMan = new PacMan(start % maze.getCols(), start / maze.getCols(), 3); // 3 lives
+        ghosts = new GhostStore(maze.getGhostStartCount()); // Placed on their starts by reset()
+        ghostGrid = new OccupancyGrid(maze.getCellCount(), ghosts.size());
+        // Every actor before and after the tick, plus the pellet eaten this tick
+        dirtyCells = new int[2 * (1 + ghosts.size()) + 1];
+        reset(seed);
+    }
+
+    /**
+     * Restarts the game with the seed it was last reset with.
+     */
+    public void reset() {
+        reset(seed);
+    }
+
+    /**
+     * Initializes game state variables and reseeds the ghost RNG.
+     * The game is left stopped; call {@link #start()} to begin ticking.
+     * @param seed Seed for the ghost RNG.
+     */
+    public void reset(long seed) {
+        if (recorder != null) {
+            recorder.endGame(tick, score); // No-op if the game already ended
+            recorder.startGame(seed);
+        }
+        this.seed = seed;
+        random.setSeed(seed);
+        tick = 0;
+        if (pelletsShared) {
+            pellets = maze.newPelletBits(); // Leave the snapshot's copy alone
+            pelletsShared = false;
+        }
+        maze.copyPelletsInto(pellets);
+        pelletsRemaining = maze.getPelletCount();
+
+        // Actors are reused across games; only their state is reset
+        resetPacMan();
+        pacMan.lives = 3; // 3 lives
+        for (int i = 0; i < ghosts.size(); i++) {
+            resetGhost(i, maze.getGhostStart(i));
+        }
+
+        score = 0;
+        pelletsEaten = 0;
+        livesLost = 0;
+        ghostsEaten = 0;
+        running = false;
+        gameOver = false;
+        gameWon = false;
+        dirtyCellCount = 0;
+        fullRepaint = true;
+    }
+
+    /**
+     * Lets step() advance the game.
+     */
+    public void start() {
+        running = true;
+    }
+
+    /**
+     * Advances the game by one tick.
+     * @param input One of UP, DOWN, LEFT, RIGHT to steer Pac-Man before moving, or NO_INPUT.
+     */
+    public void step(int input) {
+        dirtyCellCount = 0;
+        hudDirty = false;
+        fullRepaint = false;
+        if (input != NO_INPUT) {
+            steer(input);
+        }
+        if (running) {
+            int scoreBefore = score;
+            int livesBefore = pacMan.lives;
+            markActorsDirty(); // Where actors were drawn last frame
+            updateGame();
+            checkGameStatus();
+            markActorsDirty(); // Where they are drawn now
+            hudDirty = score != scoreBefore || pacMan.lives != livesBefore;
+            if (!running) {
+                fullRepaint = true; // End screen covers the board
+                GameEvents.GameEnd event = new GameEvents.GameEnd();
+                if (event.shouldCommit()) {
+                    event.won = gameWon;
+                    event.tick = tick;
+                    event.score = score;
+                    event.livesLost = livesLost;
+                    event.commit();
+                }
+                if (recorder != null) {
+                    recorder.endGame(tick, score);
+                }
+            }
+        }
+    }
+
+    /**
+     * Turns Pac-Man towards the given direction if the adjacent tile is not a wall.
+     * Otherwise the turn is buffered and taken on the first later tick where it is open,
+     * so a key pressed just before a junction is not lost; a newer input replaces it.
+     * @param direction One of UP, DOWN, LEFT, RIGHT.
+     */
+    public void steer(int direction) {
+        if (!running && (gameOver || gameWon)) {
+            // If game is over/won, ignore movement
+            return;
+        }
+        if (direction < UP || direction > RIGHT) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.record(tick, direction);
+        }
+        int newDx = DIRECTION_DX[direction];
+        int newDy = DIRECTION_DY[direction];
+
+        // Check if the new direction is valid (not immediately into a wall)
+        if (isValidMove(pacMan.x + newDx, pacMan.y + newDy)) {
+            pacMan.dx = newDx;
+            pacMan.dy = newDy;
+            queuedTurn = NO_INPUT;
+        } else {
+            queuedTurn = direction;
+        }
+    }
+
+    /**
+     * Updates game state: movement, collisions, etc.
+     */
+    private void updateGame() {
+        tick++;
+
+        // --- Pac-Man Movement ---
+        pacMan.prevX = pacMan.x;
+        pacMan.prevY = pacMan.y;
+        if (queuedTurn != NO_INPUT
+                && isValidMove(pacMan.x + DIRECTION_DX[queuedTurn], pacMan.y + DIRECTION_DY[queuedTurn])) {
+            pacMan.dx = DIRECTION_DX[queuedTurn]; // Reached the opening of a buffered turn
+            pacMan.dy = DIRECTION_DY[queuedTurn];
+            queuedTurn = NO_INPUT;
+        }
+        int nextPacManX = pacMan.x + pacMan.dx;
+        int nextPacManY = pacMan.y + pacMan.dy;
+
+        // Check for wall collision before moving
+        if (isValidMove(nextPacManX, nextPacManY)) {
+            pacMan.move(); // Move Pac-Man if the next tile is not a wall
+        } else {
+            // Stop Pac-Man if he hits a wall
+            pacMan.dx = 0;
+            pacMan.dy = 0;
+        }
+
+        // Handle pellet/power pellet consumption
+        int pacManCell = pacMan.y * maze.getCols() + pacMan.x;
+        if (Maze.isSet(pellets, pacManCell)) {
+            if (pelletsShared) {
+                pellets = pellets.clone(); // Copy-on-write: a snapshot still holds the old array
+                pelletsShared = false;
+            }
+            Maze.clear(pellets, pacManCell);
+            markDirty(pacManCell); // Pac-Man may be sent back to start before the tick ends
+            pelletsRemaining--;
+            pelletsEaten++;
+            if (!maze.isPowerPellet(pacManCell)) {
+                score += 10; // Eat pellet
+            } else {
+                score += 50; // Eat power pellet
+                // Frighten ghosts
+                ghosts.frightenAll(tick + POWER_PELLET_FRIGHTEN_TICKS);
+                GameEvents.PowerPellet event = new GameEvents.PowerPellet();
+                if (event.shouldCommit()) {
+                    event.tick = tick;
+                    event.score = score;
+                    event.ghosts = ghosts.size();
+                    event.commit();
+                }
+            }
+        }
+
+        // --- Ghost Movement ---
+        // Index loops and precomputed move masks keep this path free of allocation
+        ghosts.expireFrightened(tick); // Check if frightened states have expired
+        ghosts.savePositions();
+        for (int i = 0; i < ghosts.size(); i++) {
+            moveGhost(i);
+        }
+
+        // --- Collision Detection (Pac-Man vs Ghosts) ---
+        // Only the ghosts on Pac-Man's tile are visited, in index order as a full scan would.
+        // A collision can move Pac-Man, so his tile is looked up again after each one.
+        int lastChecked = -1;
+        while (true) {
+            int i = ghostGrid.first(pacMan.y * maze.getCols() + pacMan.x);
+            while (i != -1 && i <= lastChecked) {
+                i = ghostGrid.next(i);
+            }
+            if (i == -1) {
+                break;
+            }
+            lastChecked = i;
+            if (ghosts.isFrightened(i)) {
+                score += 200; // Score for eating frightened ghost
+                ghostsEaten++;
+                resetGhost(i, maze.getGhostRespawn(i)); // Send ghost back to starting point
+            } else {
+                // Pac-Man loses a life
+                pacMan.lives--;
+                livesLost++;
+                if (pacMan.lives <= 0) {
+                    gameOver = true;
+                    running = false;
+                    break; // Other ghosts on the tile cannot take a life that is already gone
+                } else {
+                    // Reset Pac-Man and ghosts to starting positions
+                    resetPacMan();
+                    for (int j = 0; j < ghosts.size(); j++) {
+                        resetGhost(j, maze.getGhostRespawn(j)); // Reset all ghosts
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves one ghost a tile according to the current ghost behaviour, and files it under
+     * its new cell in the ghost grid.
+     * @param index The ghost's index in getGhosts(); CHASE_SCATTER uses it to pick a corner.
+     */
+    void moveGhost(int index) {
+        if (ghostBehaviour == GhostBehaviour.RANDOM) {
+            moveGhostRandomly(index);
+        } else {
+            moveGhostAlongDistances(index);
+        }
+        ghostGrid.move(index, ghosts.y[index] * maze.getCols() + ghosts.x[index]);
+    }
+
+    /**
+     * Independent Ghost AI: moves the ghost one tile in a randomly chosen valid direction.
+     */
+    private void moveGhostRandomly(int i) {
+        int moves = maze.getMoves(ghosts.y[i] * maze.getCols() + ghosts.x[i]);
+        int moveCount = Integer.bitCount(moves);
+        if (moveCount > 0) {
+            int direction = nthSetBit(moves, random.nextInt(moveCount));
+            ghosts.dx[i] = DIRECTION_DX[direction];
+            ghosts.dy[i] = DIRECTION_DY[direction];
+            ghosts.x[i] += ghosts.dx[i];
+            ghosts.y[i] += ghosts.dy[i];
+        } else {
+            // If no valid moves (e.g., stuck in a corner), stop
+            ghosts.dx[i] = 0;
+            ghosts.dy[i] = 0;
+        }
+    }
+
+    /**
+     * Distance-field Ghost AI: steps to the neighbouring tile that is closest to the ghost's
+     * target (its scatter corner or Pac-Man), or furthest from Pac-Man while frightened.
+     * Ghosts do not turn back unless they are in a dead end, so they do not jitter.
+     * A tile held by another ghost is only taken when there is no free one (or it is Pac-Man's):
+     * two ghosts sharing a tile, e.g. after respawning in the ghost house, would otherwise make
+     * the same choices from then on and move as one, catching Pac-Man twice at a time.
+     */
+    private void moveGhostAlongDistances(int i) {
+        int cols = maze.getCols();
+        int cell = ghosts.y[i] * cols + ghosts.x[i];
+        int moves = maze.getMoves(cell);
+        int reverse = directionOf(-ghosts.dx[i], -ghosts.dy[i]);
+        if (reverse != NO_INPUT && Integer.bitCount(moves) > 1) {
+            moves &= ~(1 << reverse);
+        }
+        if (moves == 0) {
+            // If no valid moves (e.g., stuck in a corner), stop
+            ghosts.dx[i] = 0;
+            ghosts.dy[i] = 0;
+            return;
+        }
+
+        boolean flee = ghosts.isFrightened(i);
+        boolean scatter = !flee && tick % (SCATTER_TICKS + CHASE_TICKS) < SCATTER_TICKS;
+        DistanceField corner = scatter ? maze.getScatterField(i % Maze.SCATTER_CORNERS) : null;
+        int pacManCell = pacMan.y * cols + pacMan.x;
+
+        int best = NO_INPUT;
+        int bestDistance = 0;
+        boolean bestFree = false;
+        for (int d = UP; d <= RIGHT; d++) {
+            if ((moves & (1 << d)) == 0) {
+                continue;
+            }
+            int next = cell + DIRECTION_DX[d] + DIRECTION_DY[d] * cols;
+            int distance = scatter ? corner.get(next) : distanceToPacMan(next, pacManCell);
+            boolean free = ghostGrid.first(next) == -1 || (!flee && next == pacManCell);
+            if (best == NO_INPUT || (free && !bestFree)
+                    || (free == bestFree && (flee ? distance > bestDistance : distance < bestDistance))) {
+                best = d;
+                bestDistance = distance;
+                bestFree = free;
+            }
+        }
+        ghosts.dx[i] = DIRECTION_DX[best];
+        ghosts.dy[i] = DIRECTION_DY[best];
+        ghosts.x[i] += ghosts.dx[i];
+        ghosts.y[i] += ghosts.dy[i];
+    }
+
+    /**
+     * Returns the shortest-path distance from a cell to Pac-Man's cell. Uses the maze's
+     * all-pairs table when it has one; otherwise a flow field towards Pac-Man, shared by every
+     * ghost and rebuilt with a full BFS whenever he reaches a new tile. The rebuild is not
+     * incremental: one step of Pac-Man changes the distance of most cells, so it costs
+     * O(open cells) on the ticks he moves, about 20-40 ns a cell (0.1 ms at 101x101, 1.4 ms
+     * at 301x301, 21 ms at 1001x1001), and nothing while all ghosts scatter.
+     */
+    private int distanceToPacMan(int cell, int pacManCell) {
+        if (maze.hasDistanceTable()) {
+            return maze.distance(cell, pacManCell);
+        }
+        if (pacManField == null) {
+            pacManField = new DistanceField(maze);
+        }
+        if (pacManField.getTarget() != pacManCell) {
+            pacManField.compute(pacManCell);
+        }
+        return pacManField.get(cell);
+    }
+
+    /**
+     * Returns the direction constant for a unit vector, or NO_INPUT for (0, 0).
+     */
+    static int directionOf(int dx, int dy) {
+        for (int d = UP; d <= RIGHT; d++) {
+            if (DIRECTION_DX[d] == dx && DIRECTION_DY[d] == dy) {
+                return d;
+            }
+        }
+        return NO_INPUT;
+    }
+
+    private void markActorsDirty() {
+        markDirty(pacMan.y * maze.getCols() + pacMan.x);
+        for (int i = 0; i < ghosts.size(); i++) {
+            markDirty(ghosts.y[i] * maze.getCols() + ghosts.x[i]);
+        }
+    }
+
+    private void markDirty(int cell) {
+        if (dirtyCellCount < dirtyCells.length) {
+            dirtyCells[dirtyCellCount++] = cell;
+        } else {
+            fullRepaint = true;
+        }
+    }
+
+    private void resetPacMan() {
+        int start = maze.getPacManStart();
+        pacMan.reset(start % maze.getCols(), start / maze.getCols());
+        queuedTurn = NO_INPUT;
+    }
+
+    private void resetGhost(int index, int startCell) {
+        ghosts.reset(index, startCell % maze.getCols(), startCell / maze.getCols());
+        ghostGrid.move(index, startCell);
+    }
+
+    /**
+     * Returns the index of the n-th (0-based) set bit of a move mask.
+     * Choosing the n-th legal direction this way matches picking from a list of moves
+     * built in UP, DOWN, LEFT, RIGHT order.
+     */
+    private static int nthSetBit(int mask, int n) {
+        for (int d = UP; d <= RIGHT; d++) {
+            if ((mask & (1 << d)) != 0 && n-- == 0) {
+                return d;
+            }
+        }
+        return NO_INPUT;
+    }
+
+    /**
+     * Checks if a move to (x, y) is valid (not a wall).
+     */
+    boolean isValidMove(int x, int y) {
+        if (x < 0 || x >= maze.getCols() || y < 0 || y >= maze.getRows()) {
+            return false; // Out of bounds
+        }
+        // Ghosts can move through ghost house entrance (empty space), but Pac-Man cannot
+        // Simplified: Pac-Man can't go into walls. Ghosts can't go into walls unless it's their "home"
+        return !maze.isWall(y * maze.getCols() + x);
+    }
+
+    /**
+     * Checks for win/loss conditions.
+     */
+    private void checkGameStatus() {
+        if (pelletsRemaining == 0) {
+            gameWon = true;
+            running = false;
+        }
+    }
+
+    // --- Read-only accessors for views and simulations ---
+
+    /**
+     * Returns the tile at the given cell: 0=empty, 1=wall, 2=pellet, 3=power pellet.
+     */
+    public int getTile(int row, int col) {
+        int cell = row * maze.getCols() + col;
+        if (maze.isWall(cell)) {
+            return 1;
+        } else if (Maze.isSet(pellets, cell)) {
+            return maze.isPowerPellet(cell) ? 3 : 2;
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the first cell at or after fromCell that still holds a pellet or power pellet,
+     * or -1 if there is none. Lets views visit only the pellets instead of every tile.
+     */
+    public int nextPellet(int fromCell) {
+        return Maze.nextSetBit(pellets, fromCell);
+    }
+
+    /**
+     * Returns how many cells the last step() recorded as changed (may contain repeats).
+     */
+    public int getDirtyCellCount() {
+        return dirtyCellCount;
+    }
+
+    /**
+     * Returns the i-th cell changed by the last step().
+     */
+    public int getDirtyCell(int i) {
+        return dirtyCells[i];
+    }
+
+    /**
+     * Returns true if the last step() changed the score or lives.
+     */
+    public boolean isHudDirty() {
+        return hudDirty;
+    }
+
+    /**
+     * Returns true if the whole view must be redrawn: after a reset, when the game ended,
+     * or when more cells changed than are tracked.
+     */
+    public boolean isFullRepaintNeeded() {
+        return fullRepaint;
+    }
+
+    /**
+     * Captures the full game state. The pellet bitset is shared with the snapshot rather
+     * than copied; the engine copies it before it next eats a pellet.
+     */
+    public GameSnapshot snapshot() {
+        pelletsShared = true;
+        return new GameSnapshot(maze, pellets, pelletsRemaining, score, tick, pelletsEaten, livesLost, ghostsEaten,
+                seed, random.getState(), running, gameOver, gameWon,
+                pacMan, queuedTurn, ghosts.saveState(), ghosts.frightened.clone(),
+                ghosts.frightenedUntilTick.clone());
+    }
+
+    /**
+     * Returns the game to the state captured by a snapshot of this engine or another engine
+     * on the same maze. The same inputs then produce the same game from there on.
+     * @throws IllegalArgumentException If the snapshot was taken on another maze.
+     * @throws IllegalStateException If the game is being recorded; a recording cannot go back in time.
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.maze != maze) {
+            throw new IllegalArgumentException("Snapshot is of another maze: " + snapshot.maze.getId());
+        }
+        if (recorder != null) {
+            throw new IllegalStateException("Cannot restore a snapshot while recording");
+        }
+        pellets = snapshot.pellets;
+        pelletsShared = true;
+        pelletsRemaining = snapshot.pelletsRemaining;
+        score = snapshot.score;
+        tick = snapshot.tick;
+        pelletsEaten = snapshot.pelletsEaten;
+        livesLost = snapshot.livesLost;
+        ghostsEaten = snapshot.ghostsEaten;
+        seed = snapshot.seed;
+        random.setState(snapshot.randomState);
+        running = snapshot.running;
+        gameOver = snapshot.gameOver;
+        gameWon = snapshot.gameWon;
+
+        pacMan.x = snapshot.pacManX;
+        pacMan.y = snapshot.pacManY;
+        pacMan.prevX = snapshot.pacManPrevX;
+        pacMan.prevY = snapshot.pacManPrevY;
+        pacMan.dx = snapshot.pacManDx;
+        pacMan.dy = snapshot.pacManDy;
+        pacMan.lives = snapshot.lives;
+        pacMan.mouthAngle = snapshot.mouthAngle;
+        pacMan.mouthSpeed = snapshot.mouthSpeed;
+        queuedTurn = snapshot.queuedTurn;
+        ghosts.restoreState(snapshot.ghostState, snapshot.ghostsFrightened, snapshot.ghostsFrightenedUntil);
+        for (int i = 0; i < ghosts.size(); i++) {
+            ghostGrid.move(i, ghosts.y[i] * maze.getCols() + ghosts.x[i]);
+        }
+
+        dirtyCellCount = 0;
+        hudDirty = true;
+        fullRepaint = true; // Anything may have changed
+    }
+
+    public boolean isRecording() {
+        return recorder != null;
+    }
+
+    /**
+     * Records the current game, and every game after it, to the given recorder.
+     * Call right after creating or resetting the engine.
+     */
+    public void startRecording(InputRecorder recorder) {
+        this.recorder = recorder;
+        recorder.startGame(seed);
+    }
+
+    /**
+     * Ends the recording of the current game and closes the recorder.
+     */
+    public void stopRecording() throws IOException {
+        if (recorder != null) {
+            recorder.endGame(tick, score);
+            recorder.close();
+            recorder = null;
+        }
+    }
+
+    public GhostBehaviour getGhostBehaviour() {
+        return ghostBehaviour;
+    }
+
+    /**
+     * Chooses how ghosts move from the next tick on.
+     */
+    public void setGhostBehaviour(GhostBehaviour ghostBehaviour) {
+        this.ghostBehaviour = ghostBehaviour;
+    }
+
+    public Maze getMaze() {
+        return maze;
+    }
+
+    /**
+     * Returns the index of ghosts by cell. Callers must not move ghosts in it.
+     */
+    OccupancyGrid getGhostGrid() {
+        return ghostGrid;
+    }
+
+    public PacMan getPacMan() {
+        return pacMan;
+    }
+
+    public GhostStore getGhosts() {
+        return ghosts;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getPelletsRemaining() {
+        return pelletsRemaining;
+    }
+
+    public int getPelletsEaten() {
+        return pelletsEaten;
+    }
+
+    public int getLivesLost() {
+        return livesLost;
+    }
+
+    public int getGhostsEaten() {
+        return ghostsEaten;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean isGameWon() {
+        return gameWon;
+    }
+}
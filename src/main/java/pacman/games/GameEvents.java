@@ -0,0 +1,97 @@
+package pacman.games;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the game, under the "Pac-Man" category, so a recording
+ * shows game lifecycle and per-tick work next to GC and safepoint pauses.
+ * Record with e.g. -XX:StartFlightRecording. Tick and Paint fire on every tick and frame;
+ * to keep only the slow ones, give them a threshold in a .jfc settings file
+ * (pacman.games.Tick#threshold=5 ms). When JFR is not recording, an event's begin/commit
+ * pair is a couple of checks and the JIT removes the event object.
+ */
+final class GameEvents {
+
+    private GameEvents() {
+    }
+
+    @Name("pacman.games.GameStart")
+    @Label("Game Start")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class GameStart extends Event {
+        @Label("Seed")
+        long seed;
+        @Label("Maze")
+        String maze;
+        @Label("Ghosts")
+        int ghosts;
+    }
+
+    @Name("pacman.games.GameRestart")
+    @Label("Game Restart")
+    @Description("The player asked for a new game from the end screen")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class GameRestart extends Event {
+        @Label("Previous Tick")
+        long tick;
+        @Label("Previous Score")
+        int score;
+    }
+
+    @Name("pacman.games.GameEnd")
+    @Label("Game End")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class GameEnd extends Event {
+        @Label("Won")
+        boolean won;
+        @Label("Tick")
+        long tick;
+        @Label("Score")
+        int score;
+        @Label("Lives Lost")
+        int livesLost;
+    }
+
+    @Name("pacman.games.PowerPellet")
+    @Label("Power Pellet")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class PowerPellet extends Event {
+        @Label("Tick")
+        long tick;
+        @Label("Score")
+        int score;
+        @Label("Ghosts Frightened")
+        int ghosts;
+    }
+
+    @Name("pacman.games.Tick")
+    @Label("Tick")
+    @Description("One GameEngine.step() of a game loop")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class Tick extends Event {
+        @Label("Tick")
+        long tick;
+        @Label("Score")
+        int score;
+    }
+
+    @Name("pacman.games.Paint")
+    @Label("Paint")
+    @Description("One paint of the game panel, covering every region a tick changed")
+    @Category("Pac-Man")
+    @StackTrace(false)
+    static final class Paint extends Event {
+        @Label("Tick")
+        long tick;
+    }
+}
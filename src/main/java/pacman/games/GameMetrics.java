@@ -0,0 +1,252 @@
+package pacman.games;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Built-in instrumentation of a game loop: histograms of tick time, paint time, Swing
+ * timer drift and bytes allocated per tick, plus game counters, readable over JMX and by
+ * the on-screen overlay.
+ * The loop thread brackets its work with beginTick()/endTick() and beginPaint()/endPaint();
+ * recording does not allocate. Getters may be called from any thread.
+ */
+final class GameMetrics implements GameMetricsMXBean {
+
+    static final String OBJECT_NAME = "pacman.games:type=GameMetrics";
+
+    private volatile GameEngine engine; // Replaced when a level pack moves to the next level
+    private final LatencyHistogram tickNanos = new LatencyHistogram();
+    private final LatencyHistogram paintNanos = new LatencyHistogram();
+    private final LatencyHistogram timerDriftNanos = new LatencyHistogram();
+    private final LatencyHistogram allocatedBytes = new LatencyHistogram();
+    private volatile com.sun.management.ThreadMXBean threads; // Set by register(), if the JVM can count allocation
+    private volatile long timeToFirstFrameMillis = -1;
+
+    // Loop thread only
+    private long tickStart;
+    private long tickAllocatedStart;
+    private long paintStart;
+    private long lastTimerFire; // 0 until the timer has fired once since (re)starting
+
+    // Counters of games the engine has been reset from; the current game's are added on read
+    private volatile int gamesPlayed;
+    private volatile long pelletsEaten;
+    private volatile long ghostsEaten;
+    private volatile long livesLost;
+
+    /**
+     * Creates the metrics without touching the management classes, so a game can start
+     * measuring ticks before calling register().
+     * @param engine The engine whose game counters are reported.
+     */
+    GameMetrics(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Reports the counters of another engine from now on; call beforeReset() first so the
+     * old engine's game is counted.
+     */
+    void setEngine(GameEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server, replacing any earlier
+     * registration (e.g. of a previous window), and starts counting allocation.
+     */
+    void register() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            com.sun.management.ThreadMXBean allocation = (com.sun.management.ThreadMXBean) bean;
+            allocation.setThreadAllocatedMemoryEnabled(true);
+            threads = allocation;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            try {
+                server.registerMBean(this, name);
+            } catch (InstanceAlreadyExistsException e) {
+                server.unregisterMBean(name);
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            System.err.println("Could not register game metrics: " + e);
+        }
+    }
+
+    // --- Recording, on the loop thread ---
+
+    void beginTick() {
+        com.sun.management.ThreadMXBean threads = this.threads;
+        tickAllocatedStart = threads != null ? threads.getCurrentThreadAllocatedBytes() : -1;
+        tickStart = System.nanoTime();
+    }
+
+    void endTick() {
+        tickNanos.record(System.nanoTime() - tickStart);
+        if (tickAllocatedStart >= 0) {
+            allocatedBytes.record(threads.getCurrentThreadAllocatedBytes() - tickAllocatedStart);
+        }
+    }
+
+    void setTimeToFirstFrameMillis(long millis) {
+        timeToFirstFrameMillis = millis;
+    }
+
+    void beginPaint() {
+        paintStart = System.nanoTime();
+    }
+
+    void endPaint() {
+        paintNanos.record(System.nanoTime() - paintStart);
+    }
+
+    /**
+     * Records how late the timer fired compared to its delay.
+     * @param delayNanos The timer's delay.
+     */
+    void timerFired(long delayNanos) {
+        long now = System.nanoTime();
+        if (lastTimerFire != 0) {
+            timerDriftNanos.record(now - lastTimerFire - delayNanos);
+        }
+        lastTimerFire = now;
+    }
+
+    /**
+     * Forgets the last timer event, so a paused timer is not counted as drift.
+     */
+    void timerRestarted() {
+        lastTimerFire = 0;
+    }
+
+    /**
+     * Adds the engine's counters to the totals; call just before the engine is reset for a
+     * new game. Counting at reset rather than at game over keeps a game that is rewound
+     * from its end screen and finished again from being counted twice.
+     */
+    void beforeReset() {
+        gamesPlayed++;
+        pelletsEaten += engine.getPelletsEaten();
+        ghostsEaten += engine.getGhostsEaten();
+        livesLost += engine.getLivesLost();
+    }
+
+    // --- GameMetricsMXBean ---
+
+    @Override
+    public long getTicks() {
+        return tickNanos.getCount();
+    }
+
+    @Override
+    public double getTickMeanMicros() {
+        return tickNanos.getMean() / 1000.0;
+    }
+
+    @Override
+    public long getTickP50Micros() {
+        return tickNanos.getValueAtPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getTickP99Micros() {
+        return tickNanos.getValueAtPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getTickMaxMicros() {
+        return tickNanos.getMax() / 1000;
+    }
+
+    @Override
+    public long getPaints() {
+        return paintNanos.getCount();
+    }
+
+    @Override
+    public double getPaintMeanMicros() {
+        return paintNanos.getMean() / 1000.0;
+    }
+
+    @Override
+    public long getPaintP50Micros() {
+        return paintNanos.getValueAtPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getPaintP99Micros() {
+        return paintNanos.getValueAtPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getPaintMaxMicros() {
+        return paintNanos.getMax() / 1000;
+    }
+
+    @Override
+    public long getTimerDriftP50Micros() {
+        return timerDriftNanos.getValueAtPercentile(50) / 1000;
+    }
+
+    @Override
+    public long getTimerDriftP99Micros() {
+        return timerDriftNanos.getValueAtPercentile(99) / 1000;
+    }
+
+    @Override
+    public long getTimerDriftMaxMicros() {
+        return timerDriftNanos.getMax() / 1000;
+    }
+
+    @Override
+    public double getAllocatedBytesPerTick() {
+        return threads != null ? allocatedBytes.getMean() : -1;
+    }
+
+    @Override
+    public long getMaxAllocatedBytesPerTick() {
+        return threads != null ? allocatedBytes.getMax() : -1;
+    }
+
+    @Override
+    public long getTimeToFirstFrameMillis() {
+        return timeToFirstFrameMillis;
+    }
+
+    @Override
+    public int getGamesPlayed() {
+        return gamesPlayed + (engine.isRunning() ? 0 : 1); // The game on the end screen counts
+    }
+
+    @Override
+    public long getPelletsEaten() {
+        return pelletsEaten + engine.getPelletsEaten();
+    }
+
+    @Override
+    public long getGhostsEaten() {
+        return ghostsEaten + engine.getGhostsEaten();
+    }
+
+    @Override
+    public long getLivesLost() {
+        return livesLost + engine.getLivesLost();
+    }
+
+    @Override
+    public void resetHistograms() {
+        // Clears may race with a recording on the loop thread; at worst one value survives
+        tickNanos.reset();
+        paintNanos.reset();
+        timerDriftNanos.reset();
+        allocatedBytes.reset();
+    }
+}
@@ -0,0 +1,57 @@
+package pacman.games;
+
+/**
+ * Management interface of GameMetrics, registered as "pacman.games:type=GameMetrics".
+ * Open it in JConsole or VisualVM to watch a running game. Times are in microseconds.
+ */
+public interface GameMetricsMXBean {
+
+    /** Ticks measured since the last reset. */
+    long getTicks();
+
+    double getTickMeanMicros();
+
+    long getTickP50Micros();
+
+    long getTickP99Micros();
+
+    long getTickMaxMicros();
+
+    /** Paint calls measured since the last reset. */
+    long getPaints();
+
+    double getPaintMeanMicros();
+
+    long getPaintP50Micros();
+
+    long getPaintP99Micros();
+
+    long getPaintMaxMicros();
+
+    /** How much later than DELAY the Swing timer fired, at the median; not measured by --loop=active. */
+    long getTimerDriftP50Micros();
+
+    long getTimerDriftP99Micros();
+
+    long getTimerDriftMaxMicros();
+
+    /** Heap allocated by the game thread per tick, on average; -1 if the JVM cannot measure it. */
+    double getAllocatedBytesPerTick();
+
+    long getMaxAllocatedBytesPerTick();
+
+    /** Games finished or abandoned, including one showing its end screen. */
+    int getGamesPlayed();
+
+    long getPelletsEaten();
+
+    long getGhostsEaten();
+
+    long getLivesLost();
+
+    /** Milliseconds from process start to the first frame on screen; -1 if not known. */
+    long getTimeToFirstFrameMillis();
+
+    /** Clears the tick, paint, timer and allocation histograms; game counters keep counting. */
+    void resetHistograms();
+}
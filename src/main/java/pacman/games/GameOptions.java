@@ -0,0 +1,199 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Command line options of the Swing game, and the engine they describe.
+ */
+final class GameOptions {
+
+    private Random seedSource = new Random(); // Supplies the engine seed of each game
+    private boolean activeLoop; // Run on ActiveRenderingGame instead of the Swing timer
+    private String mazeSize; // "WxH" for a generated maze, null for the classic one
+    private int ghostCount = -1; // -1 keeps the maze's own ghost count
+    private GhostBehaviour ghostBehaviour = GhostBehaviour.RANDOM;
+    private Path recordPath; // Where to record the session's games, or null
+    private Path replayPath; // Recording to play back instead of taking key input, or null
+    private int replaySpeed = 4; // Ticks per tick of real time when replaying
+    private Path levelsPath; // Level pack to play through, or null
+    private int startLevel; // Level of the pack to start on
+    private LevelPack levels; // Opened on first use
+    private boolean exitAfterFirstFrame; // Report the time to the first frame and exit
+    private InputLog replay; // Read on first use
+    private Maze maze; // Built on first use, after every option is known
+
+    /**
+     * Parses the command line.
+     * @param args --seed=N makes every game (and generated maze) deterministic,
+     *             --loop=active runs the game on its own thread with active rendering,
+     *             --maze=WxH plays on a generated maze of W by H tiles,
+     *             --ghosts=N sets the number of ghosts,
+     *             --ghost-ai=RANDOM|CHASE_SCATTER picks the ghost behaviour,
+     *             --record=FILE records every game's inputs to FILE,
+     *             --replay=FILE plays a recording back (maze and ghosts come from the file),
+     *             --replay-speed=N replays N times faster than real time,
+     *             --levels=FILE plays through the mazes of a level pack,
+     *             --level=N starts on level N of the pack,
+     *             --exit-after-first-frame prints the time from process start to the first
+     *             frame and exits (for startup measurements and building a CDS archive).
+     * @throws IllegalArgumentException If an option is malformed, unknown or combined with
+     *             one it does not work with.
+     */
+    static GameOptions parse(String[] args) {
+        GameOptions options = new GameOptions();
+        for (String arg : args) {
+            if (arg.startsWith("--seed=")) {
+                options.seedSource = new Random(Long.parseLong(arg.substring("--seed=".length())));
+            } else if (arg.equals("--loop=active")) {
+                options.activeLoop = true;
+            } else if (arg.startsWith("--maze=")) {
+                options.mazeSize = arg.substring("--maze=".length());
+            } else if (arg.startsWith("--ghosts=")) {
+                options.ghostCount = Integer.parseInt(arg.substring("--ghosts=".length()));
+            } else if (arg.startsWith("--ghost-ai=")) {
+                options.ghostBehaviour = GhostBehaviour.valueOf(arg.substring("--ghost-ai=".length()));
+            } else if (arg.startsWith("--record=")) {
+                options.recordPath = Paths.get(arg.substring("--record=".length()));
+            } else if (arg.startsWith("--replay=")) {
+                options.replayPath = Paths.get(arg.substring("--replay=".length()));
+            } else if (arg.startsWith("--replay-speed=")) {
+                options.replaySpeed = Integer.parseInt(arg.substring("--replay-speed=".length()));
+                if (options.replaySpeed <= 0) {
+                    throw new IllegalArgumentException("Expected --replay-speed=N with N > 0, got " + arg);
+                }
+            } else if (arg.startsWith("--levels=")) {
+                options.levelsPath = Paths.get(arg.substring("--levels=".length()));
+            } else if (arg.startsWith("--level=")) {
+                options.startLevel = Integer.parseInt(arg.substring("--level=".length()));
+            } else if (arg.equals("--exit-after-first-frame")) {
+                options.exitAfterFirstFrame = true;
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        if (options.levelsPath != null) {
+            // Recordings name a single maze, and the active loop keeps one window size
+            if (options.mazeSize != null || options.recordPath != null || options.replayPath != null
+                    || options.activeLoop) {
+                throw new IllegalArgumentException(
+                        "--levels cannot be combined with --maze, --record, --replay or --loop=active");
+            }
+        }
+        return options;
+    }
+
+    Random getSeedSource() {
+        return seedSource;
+    }
+
+    boolean isActiveLoop() {
+        return activeLoop && replayPath == null; // Replays run on the timer loop
+    }
+
+    GhostBehaviour getGhostBehaviour() {
+        return getReplay() != null ? replay.getGhostBehaviour() : ghostBehaviour;
+    }
+
+    boolean isExitAfterFirstFrame() {
+        return exitAfterFirstFrame;
+    }
+
+    int getReplaySpeed() {
+        return replaySpeed;
+    }
+
+    /**
+     * Returns the recording to replay, reading it the first time, or null if not replaying.
+     */
+    InputLog getReplay() {
+        if (replay == null && replayPath != null) {
+            try {
+                replay = InputLog.read(replayPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return replay;
+    }
+
+    /**
+     * Returns the level pack to play through, opening it the first time, or null if there is none.
+     * @throws IllegalArgumentException If --level is not a level of the pack.
+     */
+    LevelPack getLevels() {
+        if (levels == null && levelsPath != null) {
+            LevelPack pack;
+            try {
+                pack = LevelPack.open(levelsPath);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            int count = pack.getLevelCount();
+            if (startLevel < 0 || startLevel >= count) {
+                throw new IllegalArgumentException("--level=" + startLevel + " is not a level of " + levelsPath
+                        + (count == 0 ? ", which has no levels" : ", which has levels 0 to " + (count - 1)));
+            }
+            levels = pack;
+        }
+        return levels;
+    }
+
+    int getStartLevel() {
+        return startLevel;
+    }
+
+    /**
+     * Returns the maze to play on (the start level's, with a level pack), generating it the first time.
+     */
+    Maze getMaze() {
+        if (maze == null) {
+            if (getLevels() != null) {
+                maze = levels.getLevel(startLevel);
+            } else if (getReplay() != null) {
+                maze = Maze.forId(replay.getMazeId());
+            } else {
+                maze = mazeSize == null ? classicMaze() : generatedMaze();
+            }
+        }
+        return maze;
+    }
+
+    private Maze classicMaze() {
+        return ghostCount < 0 ? Maze.CLASSIC : Maze.classic(ghostCount);
+    }
+
+    private Maze generatedMaze() {
+        int separator = mazeSize.indexOf('x');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Expected --maze=WxH, got --maze=" + mazeSize);
+        }
+        int cols = Integer.parseInt(mazeSize.substring(0, separator));
+        int rows = Integer.parseInt(mazeSize.substring(separator + 1));
+        // Enough ghosts to matter on a big board, unless told otherwise
+        int ghosts = ghostCount >= 0 ? ghostCount : Math.max(2, cols * rows / 2500);
+        return MazeGenerator.generate(cols, rows, ghosts, seedSource.nextLong());
+    }
+
+    /**
+     * Creates an engine for these options, seeded from the seed source (or with the first
+     * recorded game's seed when replaying) and recording if asked to.
+     */
+    GameEngine newEngine() {
+        long seed = getReplay() != null && !replay.getGames().isEmpty()
+                ? replay.getGames().get(0).getSeed() : seedSource.nextLong();
+        GameEngine engine = new GameEngine(getMaze(), seed);
+        engine.setGhostBehaviour(getGhostBehaviour());
+        if (recordPath != null) {
+            try {
+                engine.startRecording(new InputRecorder(recordPath, getMaze(), getGhostBehaviour()));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return engine;
+    }
+}
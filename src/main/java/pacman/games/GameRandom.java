@@ -0,0 +1,62 @@
+package pacman.games;
+
+/**
+ * The ghost RNG: the same 48-bit linear congruential generator as java.util.Random, giving
+ * exactly the same sequence for the same seed, but with its state readable and writable so
+ * snapshots can capture it. java.util.Random keeps its state private (and in an AtomicLong,
+ * which the single-threaded engine does not need).
+ */
+final class GameRandom {
+
+    // Constants of java.util.Random's generator
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long MASK = (1L << 48) - 1;
+
+    private long state;
+
+    GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Reseeds the generator, as Random.setSeed(seed) does.
+     */
+    void setSeed(long seed) {
+        state = (seed ^ MULTIPLIER) & MASK;
+    }
+
+    /**
+     * Returns the raw generator state, for restoring with setState().
+     */
+    long getState() {
+        return state;
+    }
+
+    void setState(long state) {
+        this.state = state;
+    }
+
+    private int next(int bits) {
+        state = (state * MULTIPLIER + ADDEND) & MASK;
+        return (int) (state >>> (48 - bits));
+    }
+
+    /**
+     * Returns a uniformly distributed int in [0, bound), as Random.nextInt(bound) does.
+     */
+    int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int r = next(31);
+        int m = bound - 1;
+        if ((bound & m) == 0) { // Power of two
+            return (int) ((bound * (long) r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(31)) {
+            // Reject values from the incomplete last range, as Random does
+        }
+        return r;
+    }
+}
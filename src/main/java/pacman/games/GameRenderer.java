@@ -0,0 +1,227 @@
+package pacman.games;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * Draws a GameEngine's state with plain Graphics calls.
+ * Kept apart from GamePanel so the same drawing can target an offscreen image,
+ * e.g. in benchmarks, without a live Swing component.
+ */
+class GameRenderer {
+
+    // --- Drawing Constants ---
+    static final int MAX_TILE_SIZE = 30; // Tile size on boards that fit the screen, e.g. the classic maze
+    private static final int MAX_BOARD_SIZE = 900; // Larger boards get smaller tiles, down to one pixel
+    private static final int MIN_ROUND_PELLET_TILE_SIZE = 6; // Below this, pellets are drawn as cheap squares
+    static final Color WALL_COLOR = Color.BLUE; // Walls are whatever is left of the background
+    private static final Color PATH_BORDER_COLOR = new Color(20, 20, 20); // Dark grey for border
+
+    // Ghost colors, indexed by ghost order in the engine
+    private static final Color[] GHOST_COLORS = {Color.RED, Color.CYAN};
+
+    private final GameEngine engine;
+    private final int TILE_SIZE; // Size of each grid tile (wall, pellet, pacman, ghost)
+    private final int BOARD_ROWS; // Number of rows in the maze
+    private final int BOARD_COLS; // Number of columns in the maze
+    private final int SCREEN_WIDTH; // Width of the game screen
+    private final int SCREEN_HEIGHT; // Height of the game screen (+50 for score/lives)
+
+    // Walls and paths never change during a game, so they are rendered once into this layer
+    private VolatileImage mazeLayer;
+    private Maze mazeLayerMaze; // The maze mazeLayer was rendered from
+
+    private SpriteAtlas sprites; // Actor frames for the current tile size and screen, built on first draw
+
+    private final TextCache textCache; // Fonts, metrics and the pre-rendered score strip
+
+    public GameRenderer(GameEngine engine) {
+        this.engine = engine;
+        BOARD_ROWS = engine.getMaze().getRows();
+        BOARD_COLS = engine.getMaze().getCols();
+        TILE_SIZE = Math.max(1, Math.min(MAX_TILE_SIZE, MAX_BOARD_SIZE / Math.max(BOARD_ROWS, BOARD_COLS)));
+        SCREEN_WIDTH = BOARD_COLS * TILE_SIZE;
+        SCREEN_HEIGHT = BOARD_ROWS * TILE_SIZE + 50;
+        textCache = new TextCache(SCREEN_WIDTH, SCREEN_HEIGHT, SCREEN_HEIGHT - BOARD_ROWS * TILE_SIZE);
+    }
+
+    public int getWidth() {
+        return SCREEN_WIDTH;
+    }
+
+    public int getHeight() {
+        return SCREEN_HEIGHT;
+    }
+
+    /**
+     * Returns the size of one tile in pixels, smaller than MAX_TILE_SIZE on large mazes.
+     */
+    public int getTileSize() {
+        return TILE_SIZE;
+    }
+
+    /**
+     * Returns the y coordinate where the score/lives strip starts, below the board.
+     */
+    public int getHudY() {
+        return BOARD_ROWS * TILE_SIZE;
+    }
+
+    /**
+     * Renders the maze, actors, score and end screens.
+     * The wall color is expected to be filled in beforehand (the panel's background).
+     * Only what intersects the clip is drawn, so repainting a few tiles costs a few tiles.
+     * @param g The Graphics object.
+     */
+    public void draw(Graphics g) {
+        draw(g, 1.0);
+    }
+
+    /**
+     * Renders a frame between two ticks, drawing actors part way from their previous tile
+     * to their current one.
+     * @param g The Graphics object.
+     * @param alpha Fraction of the tick elapsed: 0 draws actors where they were, 1 where they are.
+     */
+    public void draw(Graphics g, double alpha) {
+        // Draw maze: walls and paths come from the cached layer, pellets are drawn on top
+        drawMazeLayer(g);
+        Rectangle clip = g.getClipBounds();
+        int firstRow = 0, lastRow = BOARD_ROWS - 1, firstCol = 0, lastCol = BOARD_COLS - 1;
+        if (clip != null) {
+            firstRow = Math.max(firstRow, clip.y / TILE_SIZE);
+            lastRow = Math.min(lastRow, (clip.y + clip.height - 1) / TILE_SIZE);
+            firstCol = Math.max(firstCol, clip.x / TILE_SIZE);
+            lastCol = Math.min(lastCol, (clip.x + clip.width - 1) / TILE_SIZE);
+        }
+        for (int r = firstRow; r <= lastRow; r++) {
+            int rowEnd = r * BOARD_COLS + lastCol;
+            for (int cell = engine.nextPellet(r * BOARD_COLS + firstCol); cell >= 0 && cell <= rowEnd;
+                 cell = engine.nextPellet(cell + 1)) {
+                int x = (cell % BOARD_COLS) * TILE_SIZE;
+                int y = r * TILE_SIZE;
+                if (TILE_SIZE < MIN_ROUND_PELLET_TILE_SIZE) { // Too small to see the shape
+                    g.setColor(engine.getMaze().isPowerPellet(cell) ? Color.PINK : Color.WHITE);
+                    g.fillRect(x + TILE_SIZE / 3, y + TILE_SIZE / 3, Math.max(1, TILE_SIZE / 3), Math.max(1, TILE_SIZE / 3));
+                } else if (!engine.getMaze().isPowerPellet(cell)) { // Pellet
+                    g.setColor(Color.WHITE);
+                    g.fillOval(x + TILE_SIZE / 3, y + TILE_SIZE / 3, TILE_SIZE / 3, TILE_SIZE / 3);
+                } else { // Power Pellet
+                    g.setColor(Color.PINK);
+                    g.fillOval(x + TILE_SIZE / 4, y + TILE_SIZE / 4, TILE_SIZE / 2, TILE_SIZE / 2);
+                }
+            }
+        }
+
+        // Draw Pac-Man and the ghosts from the pre-rendered frames
+        SpriteAtlas atlas = getSprites(g);
+        PacMan pacMan = engine.getPacMan();
+        atlas.drawPacMan(g, interpolate(pacMan.prevX, pacMan.x, alpha), interpolate(pacMan.prevY, pacMan.y, alpha),
+                pacMan);
+        GhostStore ghosts = engine.getGhosts();
+        for (int i = 0; i < ghosts.size(); i++) {
+            int x = interpolate(ghosts.prevX[i], ghosts.x[i], alpha);
+            int y = interpolate(ghosts.prevY[i], ghosts.y[i], alpha);
+            if (g.hitClip(x, y, TILE_SIZE, TILE_SIZE)) { // Skip ghosts off the repainted area
+                atlas.drawGhost(g, x, y, i, ghosts.isFrightened(i));
+            }
+        }
+
+        // Draw Score and Lives
+        if (g.hitClip(0, getHudY(), SCREEN_WIDTH, SCREEN_HEIGHT - getHudY())) {
+            textCache.drawHud(g, getHudY(), engine.getScore(), pacMan.lives);
+        }
+
+        if (!engine.isRunning()) {
+            if (engine.isGameOver()) {
+                textCache.drawEndScreen(g, "Game Over", Color.RED, engine.getScore());
+            } else if (engine.isGameWon()) {
+                textCache.drawEndScreen(g, "You Won!", Color.GREEN, engine.getScore());
+            }
+        }
+    }
+
+    /**
+     * Returns the pixel coordinate of an actor alpha of the way from its previous tile to its current one.
+     */
+    private int interpolate(int previousTile, int tile, double alpha) {
+        return (int) Math.round((previousTile + (tile - previousTile) * alpha) * TILE_SIZE);
+    }
+
+    /**
+     * Returns the sprite atlas, (re)rendering it on first use or when the tile size or the
+     * screen's scale changed.
+     */
+    private SpriteAtlas getSprites(Graphics g) {
+        GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
+        if (sprites == null || !sprites.matches(TILE_SIZE, gc)) {
+            sprites = new SpriteAtlas(TILE_SIZE, GHOST_COLORS, gc);
+        }
+        return sprites;
+    }
+
+    /**
+     * Drops the cached maze layer so it is rebuilt on the next frame.
+     * Only needed if the maze changes without the engine switching Maze objects.
+     */
+    public void invalidateMazeLayer() {
+        mazeLayerMaze = null;
+    }
+
+    /**
+     * Copies the cached walls and paths onto g, (re)rendering the layer when the maze changed
+     * or the accelerated image was lost or no longer matches the screen.
+     * @param g The Graphics object.
+     */
+    private void drawMazeLayer(Graphics g) {
+        GraphicsConfiguration gc = ((Graphics2D) g).getDeviceConfiguration();
+        int width = BOARD_COLS * TILE_SIZE;
+        int height = BOARD_ROWS * TILE_SIZE;
+        do {
+            int status = mazeLayer == null ? VolatileImage.IMAGE_INCOMPATIBLE : mazeLayer.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                mazeLayer = gc.createCompatibleVolatileImage(width, height);
+                mazeLayerMaze = null;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                mazeLayerMaze = null; // Contents were lost with the video memory
+            }
+            if (mazeLayerMaze != engine.getMaze()) {
+                renderMazeLayer();
+            }
+            g.drawImage(mazeLayer, 0, 0, null);
+        } while (mazeLayer.contentsLost());
+    }
+
+    /**
+     * Renders walls and path tiles of the current maze into mazeLayer.
+     */
+    private void renderMazeLayer() {
+        Maze maze = engine.getMaze();
+        Graphics2D g = mazeLayer.createGraphics();
+        try {
+            // Walls are the background
+            g.setColor(WALL_COLOR);
+            g.fillRect(0, 0, mazeLayer.getWidth(), mazeLayer.getHeight());
+            for (int r = 0; r < BOARD_ROWS; r++) {
+                for (int c = 0; c < BOARD_COLS; c++) {
+                    if (maze.isWall(r * BOARD_COLS + c)) {
+                        continue;
+                    }
+                    int x = c * TILE_SIZE;
+                    int y = r * TILE_SIZE;
+
+                    // Draw a slightly darker border first for the path
+                    g.setColor(PATH_BORDER_COLOR);
+                    g.fillRect(x, y, TILE_SIZE, TILE_SIZE);
+
+                    // Then draw the inner part of the path in black
+                    g.setColor(Color.BLACK);
+                    g.fillRect(x + 1, y + 1, TILE_SIZE - 2, TILE_SIZE - 2); // Inset by 1 pixel for border
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+        mazeLayerMaze = maze;
+    }
+}
@@ -0,0 +1,364 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hosts many headless games in one JVM for remote thin clients over TCP.
+ * Each connection is a session with its own GameEngine. One selector thread accepts
+ * connections and reads inputs; a fixed set of worker threads each tick their share of the
+ * sessions every GameEngine.TICK_MILLIS, the way the Swing timer ticks the one local game,
+ * and write each session's changes as a StateEncoder frame (a full frame first, then deltas).
+ * <pre>
+ * client -&gt; server: one byte per input, GameEngine.UP, DOWN, LEFT, RIGHT, or RESTART
+ * server -&gt; client: StateEncoder frames, one per tick while the game runs
+ * </pre>
+ * A game that ends stays on its end state until the client sends RESTART. Inputs cross from
+ * the selector thread to the session's worker through an InputQueue, so neither side locks.
+ * A client that falls more than OUTPUT_FRAMES frames behind is disconnected.
+ * Every STATS_MILLIS the server prints its sessions, ticks per second, the time to tick one
+ * session, how late the workers' tick rounds start, and how busy the workers are.
+ */
+public class GameServer {
+
+    static final int DEFAULT_PORT = 7777;
+    static final byte RESTART = 4;
+    private static final int OUTPUT_FRAMES = 32; // Frames a session can have unsent before it counts as stalled
+    private static final long TICK_NANOS = GameEngine.TICK_MILLIS * 1_000_000L;
+    private static final long STATS_MILLIS = 5000;
+    private static final long ACCEPT_RETRY_MILLIS = 100; // Pause after a failed accept, e.g. while out of file descriptors
+
+    private final int port;
+    private final Maze maze;
+    private final GhostBehaviour ghostBehaviour;
+    private final Worker[] workers;
+    private final AtomicLong gamesStarted = new AtomicLong(); // Numbers games for deriving their seeds
+    private final long baseSeed = System.nanoTime();
+    private int nextWorker; // Round-robin assignment of new sessions; selector thread only
+    private int acceptFailures; // Connections lost since the last stats line; selector thread only
+    private long acceptResumeMillis; // When to accept again after a failure, or 0; selector thread only
+
+    /**
+     * @param port TCP port to listen on.
+     * @param workerCount Threads ticking sessions, typically one per core.
+     * @param maze Maze every session plays on; its distance tables are shared by all sessions.
+     * @param ghostBehaviour Ghost AI of every session.
+     */
+    public GameServer(int port, int workerCount, Maze maze, GhostBehaviour ghostBehaviour) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workerCount);
+        }
+        this.port = port;
+        this.maze = maze;
+        this.ghostBehaviour = ghostBehaviour;
+        workers = new Worker[workerCount];
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker();
+        }
+    }
+
+    /**
+     * Starts the workers and runs the selector loop on the calling thread. A connection that
+     * fails while being accepted is logged and dropped, and accepting pauses for
+     * ACCEPT_RETRY_MILLIS; the loop stops only if the selector or the listening socket fails.
+     */
+    public void run() throws IOException {
+        for (int i = 0; i < workers.length; i++) {
+            Thread thread = new Thread(workers[i], "Session worker " + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        ByteBuffer readBuffer = ByteBuffer.allocateDirect(256);
+        try (Selector selector = Selector.open(); ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(port), 1024);
+            server.configureBlocking(false);
+            SelectionKey serverKey = server.register(selector, SelectionKey.OP_ACCEPT);
+            System.out.println("Serving " + maze.getId() + " with " + workers.length + " workers on port " + port);
+            long nextStats = System.currentTimeMillis() + STATS_MILLIS;
+            long statsStart = System.nanoTime();
+            while (true) {
+                long wakeUp = acceptResumeMillis != 0 ? Math.min(nextStats, acceptResumeMillis) : nextStats;
+                selector.select(Math.max(1, wakeUp - System.currentTimeMillis()));
+                if (acceptResumeMillis != 0 && System.currentTimeMillis() >= acceptResumeMillis) {
+                    acceptResumeMillis = 0;
+                    serverKey.interestOps(SelectionKey.OP_ACCEPT);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept(key, server, selector);
+                    } else if (key.isReadable()) {
+                        read(key, readBuffer);
+                    }
+                }
+                if (System.currentTimeMillis() >= nextStats) {
+                    long now = System.nanoTime();
+                    printStats(now - statsStart);
+                    statsStart = now;
+                    nextStats += STATS_MILLIS;
+                }
+            }
+        }
+    }
+
+    private void accept(SelectionKey serverKey, ServerSocketChannel server, Selector selector) {
+        while (true) {
+            SocketChannel channel = null;
+            try {
+                channel = server.accept();
+                if (channel == null) {
+                    return;
+                }
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Session session = new Session(channel);
+                channel.register(selector, SelectionKey.OP_READ, session);
+                workers[nextWorker].incoming.add(session);
+                nextWorker = (nextWorker + 1) % workers.length;
+            } catch (IOException e) {
+                // E.g. out of file descriptors, or a client that reset before it was set up.
+                // Only that connection is lost; the rest are logged as a count in the stats line.
+                if (acceptFailures++ == 0) {
+                    System.err.println("Could not accept a connection: " + e);
+                }
+                if (channel != null) {
+                    try {
+                        channel.close();
+                    } catch (IOException closeFailure) {
+                        // Already gone
+                    }
+                }
+                // The pending connection stays ready; retrying at once would spin on the same error
+                serverKey.interestOps(0);
+                acceptResumeMillis = System.currentTimeMillis() + ACCEPT_RETRY_MILLIS;
+                return;
+            }
+        }
+    }
+
+    private static void read(SelectionKey key, ByteBuffer buffer) {
+        Session session = (Session) key.attachment();
+        try {
+            buffer.clear();
+            if (session.channel.read(buffer) < 0) {
+                session.close();
+                return;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                byte input = buffer.get();
+                if (input < GameEngine.UP || input > RESTART) {
+                    session.close(); // Not a client of this protocol
+                    return;
+                }
+                session.inputs.offer(input); // A full queue drops the input, as a flooded key would
+            }
+        } catch (IOException e) {
+            session.close();
+        }
+    }
+
+    private void printStats(long elapsedNanos) {
+        int sessions = 0;
+        long ticks = 0;
+        long busyNanos = 0;
+        LatencyHistogram tickTime = new LatencyHistogram();
+        LatencyHistogram lateness = new LatencyHistogram();
+        for (Worker worker : workers) {
+            sessions += worker.sessionCount;
+            ticks += worker.ticks.getAndSet(0);
+            busyNanos += worker.busyNanos.getAndSet(0);
+            worker.copyAndReset(tickTime, lateness);
+        }
+        double seconds = elapsedNanos / 1e9;
+        double busyCores = busyNanos / (double) elapsedNanos;
+        System.out.printf("%d sessions, %.0f ticks/s, session tick p50 %.1f us p99 %.1f us max %.1f us, "
+                        + "round lateness p50 %.2f ms p99 %.2f ms, workers busy %.1f%% of a core",
+                sessions, ticks / seconds,
+                tickTime.getValueAtPercentile(50) / 1e3, tickTime.getValueAtPercentile(99) / 1e3, tickTime.getMax() / 1e3,
+                lateness.getValueAtPercentile(50) / 1e6, lateness.getValueAtPercentile(99) / 1e6, 100 * busyCores);
+        if (busyCores > 0 && sessions > 0) {
+            System.out.printf(", about %.0f sessions per core", sessions / busyCores);
+        }
+        if (acceptFailures > 0) {
+            System.out.printf(", %d connections failed to be accepted", acceptFailures);
+            acceptFailures = 0;
+        }
+        System.out.println();
+    }
+
+    /**
+     * One connected client and its game. The selector thread fills the input queue; the
+     * session's worker does everything else.
+     */
+    private final class Session {
+
+        final SocketChannel channel;
+        final InputQueue inputs = new InputQueue(16);
+        final GameEngine engine;
+        final StateEncoder encoder;
+        final ByteBuffer out; // Frames not yet written, in write mode
+        final int maxFrameSize;
+        volatile boolean closed;
+
+        Session(SocketChannel channel) {
+            this.channel = channel;
+            engine = new GameEngine(maze, 0);
+            engine.setGhostBehaviour(ghostBehaviour);
+            encoder = new StateEncoder(maze, engine.getGhosts().size());
+            maxFrameSize = encoder.maxFrameSize();
+            out = ByteBuffer.allocateDirect(OUTPUT_FRAMES * maxFrameSize);
+            newGame();
+        }
+
+        private void newGame() {
+            engine.reset(BatchSimulator.gameSeed(baseSeed, gamesStarted.getAndIncrement()));
+            engine.start();
+            encoder.requestFull();
+        }
+
+        /**
+         * Applies the inputs received since the last tick, advances the game and sends
+         * what changed. Worker thread only.
+         */
+        void tick() {
+            for (int input = inputs.poll(); input != GameEngine.NO_INPUT; input = inputs.poll()) {
+                if (input == RESTART) {
+                    if (!engine.isRunning()) {
+                        newGame();
+                    }
+                } else {
+                    engine.steer(input);
+                }
+            }
+            // An ended game sends nothing new, but the rest of its final frame may still be pending
+            if (engine.isRunning()) {
+                engine.step(GameEngine.NO_INPUT);
+                if (out.remaining() < maxFrameSize) {
+                    close(); // The client stopped reading
+                    return;
+                }
+                encoder.encode(engine, out);
+            }
+            if (out.position() > 0) {
+                try {
+                    out.flip();
+                    channel.write(out);
+                    out.compact();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+        }
+
+        void close() {
+            closed = true;
+            try {
+                channel.close(); // Also cancels its selection key
+            } catch (IOException e) {
+                // Already gone
+            }
+        }
+    }
+
+    /**
+     * Ticks its sessions at a fixed rate. Sessions arrive through the incoming queue and are
+     * dropped once closed.
+     */
+    private static final class Worker implements Runnable {
+
+        final Queue<Session> incoming = new ConcurrentLinkedQueue<>();
+        final AtomicLong ticks = new AtomicLong();
+        final AtomicLong busyNanos = new AtomicLong();
+        volatile int sessionCount;
+        private final List<Session> sessions = new ArrayList<>();
+        private final LatencyHistogram tickTime = new LatencyHistogram(); // One session's tick, in ns
+        private final LatencyHistogram lateness = new LatencyHistogram(); // Round start after its deadline, in ns
+        private volatile boolean resetRequested;
+
+        @Override
+        public void run() {
+            long deadline = System.nanoTime();
+            while (true) {
+                for (Session session = incoming.poll(); session != null; session = incoming.poll()) {
+                    sessions.add(session);
+                }
+                if (resetRequested) {
+                    synchronized (this) {
+                        tickTime.reset();
+                        lateness.reset();
+                        resetRequested = false;
+                    }
+                }
+                long roundStart = System.nanoTime();
+                lateness.record(roundStart - deadline);
+                long before = roundStart;
+                int ticked = 0;
+                for (int i = sessions.size() - 1; i >= 0; i--) {
+                    Session session = sessions.get(i);
+                    if (!session.closed) {
+                        session.tick();
+                        ticked++;
+                        long after = System.nanoTime();
+                        tickTime.record(after - before);
+                        before = after;
+                    }
+                    if (session.closed) {
+                        sessions.set(i, sessions.get(sessions.size() - 1));
+                        sessions.remove(sessions.size() - 1);
+                    }
+                }
+                sessionCount = sessions.size();
+                ticks.addAndGet(ticked);
+                busyNanos.addAndGet(System.nanoTime() - roundStart);
+
+                deadline += TICK_NANOS;
+                long now = System.nanoTime();
+                if (now - deadline > TICK_NANOS) {
+                    deadline = now; // Overloaded: drop the missed rounds rather than burst through them
+                } else if (deadline > now) {
+                    LockSupport.parkNanos(deadline - now);
+                }
+            }
+        }
+
+        // Merges this worker's histograms into the totals; the worker resets its own on its next round
+        synchronized void copyAndReset(LatencyHistogram tickTimeTotal, LatencyHistogram latenessTotal) {
+            if (!resetRequested) {
+                tickTimeTotal.add(tickTime);
+                latenessTotal.add(lateness);
+                resetRequested = true;
+            }
+        }
+    }
+
+    /**
+     * Runs a server until killed.
+     * @param args [port] [workers] [maze id] [ghost AI]
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        int workers = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        Maze maze = args.length > 2 ? Maze.forId(args[2]) : Maze.CLASSIC;
+        GhostBehaviour behaviour = args.length > 3 ? GhostBehaviour.valueOf(args[3]) : GhostBehaviour.RANDOM;
+        new GameServer(port, workers, maze, behaviour).run();
+    }
+}
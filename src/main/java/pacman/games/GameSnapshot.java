@@ -0,0 +1,75 @@
+package pacman.games;
+
+/**
+ * Immutable copy of everything a game's future depends on, taken with
+ * GameEngine.snapshot() and put back with GameEngine.restore().
+ * The pellet bitset is not copied: the snapshot shares the engine's array, and the engine
+ * copies it before eating the next pellet (copy-on-write). So a snapshot costs one small
+ * object plus the ghost arrays, cheap enough to take every tick for rewind, or to fork
+ * millions of states per second in a search.
+ */
+final class GameSnapshot {
+
+    final Maze maze;
+    final long[] pellets; // Shared, never written after the snapshot is taken
+    final int pelletsRemaining;
+    final int score;
+    final long tick;
+    final int pelletsEaten;
+    final int livesLost;
+    final int ghostsEaten;
+    final long seed;
+    final long randomState;
+    final boolean running, gameOver, gameWon;
+
+    // Pac-Man
+    final int pacManX, pacManY, pacManPrevX, pacManPrevY, pacManDx, pacManDy, lives;
+    final double mouthAngle, mouthSpeed;
+    final int queuedTurn;
+
+    // Ghosts, in GhostStore.saveState() layout
+    final int[] ghostState;
+    final long[] ghostsFrightened;
+    final long[] ghostsFrightenedUntil;
+
+    GameSnapshot(Maze maze, long[] pellets, int pelletsRemaining, int score, long tick, int pelletsEaten,
+                 int livesLost, int ghostsEaten, long seed, long randomState,
+                 boolean running, boolean gameOver, boolean gameWon,
+                 PacMan pacMan, int queuedTurn, int[] ghostState, long[] ghostsFrightened,
+                 long[] ghostsFrightenedUntil) {
+        this.maze = maze;
+        this.pellets = pellets;
+        this.pelletsRemaining = pelletsRemaining;
+        this.score = score;
+        this.tick = tick;
+        this.pelletsEaten = pelletsEaten;
+        this.livesLost = livesLost;
+        this.ghostsEaten = ghostsEaten;
+        this.seed = seed;
+        this.randomState = randomState;
+        this.running = running;
+        this.gameOver = gameOver;
+        this.gameWon = gameWon;
+        pacManX = pacMan.x;
+        pacManY = pacMan.y;
+        pacManPrevX = pacMan.prevX;
+        pacManPrevY = pacMan.prevY;
+        pacManDx = pacMan.dx;
+        pacManDy = pacMan.dy;
+        lives = pacMan.lives;
+        mouthAngle = pacMan.mouthAngle;
+        mouthSpeed = pacMan.mouthSpeed;
+        this.queuedTurn = queuedTurn;
+        this.ghostState = ghostState;
+        this.ghostsFrightened = ghostsFrightened;
+        this.ghostsFrightenedUntil = ghostsFrightenedUntil;
+    }
+
+    long getTick() {
+        return tick;
+    }
+
+    int getScore() {
+        return score;
+    }
+}
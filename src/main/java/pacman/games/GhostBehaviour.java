@@ -0,0 +1,18 @@
+package pacman.games;
+
+/**
+ * How ghosts pick their next tile.
+ */
+public enum GhostBehaviour {
+    /**
+     * The original AI: a uniformly random legal direction every tick.
+     */
+    RANDOM,
+
+    /**
+     * Distance-field AI. Ghosts alternate between scattering to their own corner and chasing
+     * Pac-Man along shortest paths, flee from him while frightened, and never reverse unless
+     * they reach a dead end. Each decision is a lookup in precomputed distance tables.
+     */
+    CHASE_SCATTER
+}
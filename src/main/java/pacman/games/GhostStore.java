@@ -0,0 +1,125 @@
+package pacman.games;
+
+import java.util.Arrays;
+
+/**
+ * The ghosts of one game, stored as parallel primitive arrays indexed by ghost
+ * (struct of arrays) instead of one heap object per ghost.
+ * A tick walks each array front to back, so the positions of hundreds of ghosts sit in a
+ * few contiguous cache lines, and the whole-herd steps (remembering positions, frightening,
+ * expiring frightened states) are plain array loops the JIT can unroll and vectorise.
+ * The arrays are public to the package so the engine and the renderer can read and write
+ * them directly in their loops.
+ */
+final class GhostStore {
+
+    final int[] x, y; // Current grid coordinates
+    final int[] prevX, prevY; // Grid coordinates before the last tick, for interpolated drawing
+    final int[] dx, dy; // Direction vectors
+    final long[] frightened; // Bit per ghost: set while it can be eaten
+    final long[] frightenedUntilTick; // Tick at which each ghost's frightened state ends, as wide as the tick counter
+
+    private final int count;
+
+    /**
+     * @param count Number of ghosts; fixed for the life of the store.
+     */
+    GhostStore(int count) {
+        this.count = count;
+        x = new int[count];
+        y = new int[count];
+        prevX = new int[count];
+        prevY = new int[count];
+        dx = new int[count];
+        dy = new int[count];
+        frightened = new long[Maze.bitsetLength(count)];
+        frightenedUntilTick = new long[count];
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean isFrightened(int ghost) {
+        return Maze.isSet(frightened, ghost);
+    }
+
+    /**
+     * Puts a ghost on its start tile, standing still and not frightened.
+     */
+    void reset(int ghost, int startX, int startY) {
+        x[ghost] = prevX[ghost] = startX; // Jump straight to the start, no interpolation
+        y[ghost] = prevY[ghost] = startY;
+        dx[ghost] = 0;
+        dy[ghost] = 0;
+        Maze.clear(frightened, ghost);
+        frightenedUntilTick[ghost] = 0;
+    }
+
+    /**
+     * Copies every ghost's positions and directions into one array:
+     * x, y, prevX, prevY, dx and dy, count entries each.
+     * The frightened bits and timers are saved separately, with frightened.clone() and
+     * frightenedUntilTick.clone().
+     */
+    int[] saveState() {
+        int[] state = new int[6 * count];
+        System.arraycopy(x, 0, state, 0, count);
+        System.arraycopy(y, 0, state, count, count);
+        System.arraycopy(prevX, 0, state, 2 * count, count);
+        System.arraycopy(prevY, 0, state, 3 * count, count);
+        System.arraycopy(dx, 0, state, 4 * count, count);
+        System.arraycopy(dy, 0, state, 5 * count, count);
+        return state;
+    }
+
+    /**
+     * Puts back state saved by saveState().
+     */
+    void restoreState(int[] state, long[] frightenedBits, long[] frightenedUntil) {
+        System.arraycopy(state, 0, x, 0, count);
+        System.arraycopy(state, count, y, 0, count);
+        System.arraycopy(state, 2 * count, prevX, 0, count);
+        System.arraycopy(state, 3 * count, prevY, 0, count);
+        System.arraycopy(state, 4 * count, dx, 0, count);
+        System.arraycopy(state, 5 * count, dy, 0, count);
+        System.arraycopy(frightenedBits, 0, frightened, 0, frightened.length);
+        System.arraycopy(frightenedUntil, 0, frightenedUntilTick, 0, count);
+    }
+
+    /**
+     * Remembers every ghost's position as its previous one, before they move.
+     */
+    void savePositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /**
+     * Frightens every ghost until the given tick.
+     */
+    void frightenAll(long untilTick) {
+        Arrays.fill(frightened, -1L);
+        if (count % 64 != 0) {
+            frightened[frightened.length - 1] = (1L << count) - 1; // No bits past the last ghost
+        }
+        Arrays.fill(frightenedUntilTick, untilTick);
+    }
+
+    /**
+     * Ends the frightened state of every ghost whose time ran out before the given tick.
+     * Only frightened ghosts are visited.
+     */
+    void expireFrightened(long tick) {
+        for (int word = 0; word < frightened.length; word++) {
+            long bits = frightened[word];
+            while (bits != 0) {
+                int ghost = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (tick > frightenedUntilTick[ghost]) {
+                    Maze.clear(frightened, ghost);
+                }
+                bits &= bits - 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A recording written by InputRecorder, read back for replay.
+ * The file is memory-mapped and decoded in one pass; each game's inputs end up in two
+ * primitive arrays, so replaying thousands of games costs little more than simulating them.
+ */
+final class InputLog {
+
+    private final String mazeId;
+    private final GhostBehaviour ghostBehaviour;
+    private final List<Game> games;
+
+    private InputLog(String mazeId, GhostBehaviour ghostBehaviour, List<Game> games) {
+        this.mazeId = mazeId;
+        this.ghostBehaviour = ghostBehaviour;
+        this.games = games;
+    }
+
+    /**
+     * Reads a recording. A truncated last game (the recorder was not closed cleanly)
+     * is kept up to its last complete input; one cut off before its seed is complete is dropped.
+     * @throws IOException If the file cannot be read or is not a recording.
+     */
+    static InputLog read(Path path) throws IOException {
+        ByteBuffer in;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        try {
+            if (in.getInt() != InputRecorder.MAGIC) {
+                throw new IOException("Not a Pac-Man recording: " + path);
+            }
+            if (in.get() != InputRecorder.VERSION) {
+                throw new IOException("Unsupported recording version (recorded by an older or newer game): " + path);
+            }
+            String mazeId = getString(in);
+            GhostBehaviour ghostBehaviour = GhostBehaviour.valueOf(getString(in));
+            List<Game> games = new ArrayList<>();
+            while (in.hasRemaining()) {
+                if (in.get() != InputRecorder.GAME_TAG) {
+                    throw new IOException("Corrupt recording: " + path);
+                }
+                if (in.remaining() < Long.BYTES) {
+                    break; // Cut off inside the last game's seed: there is nothing of it to replay
+                }
+                games.add(readGame(in));
+            }
+            return new InputLog(mazeId, ghostBehaviour, games);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Corrupt recording: " + path, e);
+        }
+    }
+
+    private static Game readGame(ByteBuffer in) {
+        long seed = in.getLong();
+        long[] ticks = new long[16];
+        byte[] directions = new byte[16];
+        int count = 0;
+        long tick = 0;
+        try {
+            while (true) {
+                long value = getVarint(in);
+                if (value == 0) {
+                    break;
+                }
+                value--;
+                tick += value >>> 2;
+                if (count == ticks.length) {
+                    ticks = Arrays.copyOf(ticks, count * 2);
+                    directions = Arrays.copyOf(directions, count * 2);
+                }
+                ticks[count] = tick;
+                directions[count] = (byte) (value & 3);
+                count++;
+            }
+            long finalTick = tick + getVarint(in);
+            int finalScore = (int) getVarint(in);
+            return new Game(seed, Arrays.copyOf(ticks, count), Arrays.copyOf(directions, count), finalTick, finalScore);
+        } catch (BufferUnderflowException e) {
+            // Unterminated: the session ended before the game did
+            in.position(in.limit());
+            return new Game(seed, Arrays.copyOf(ticks, count), Arrays.copyOf(directions, count), tick, -1);
+        }
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    String getMazeId() {
+        return mazeId;
+    }
+
+    GhostBehaviour getGhostBehaviour() {
+        return ghostBehaviour;
+    }
+
+    List<Game> getGames() {
+        return games;
+    }
+
+    /**
+     * One recorded game: its seed, every steering input with the tick it was given at,
+     * and how it ended.
+     */
+    static final class Game {
+        private final long seed;
+        private final long[] inputTicks;
+        private final byte[] directions;
+        private final long finalTick;
+        private final int finalScore; // -1 if the recording stopped before the game ended
+
+        Game(long seed, long[] inputTicks, byte[] directions, long finalTick, int finalScore) {
+            this.seed = seed;
+            this.inputTicks = inputTicks;
+            this.directions = directions;
+            this.finalTick = finalTick;
+            this.finalScore = finalScore;
+        }
+
+        long getSeed() {
+            return seed;
+        }
+
+        int getInputCount() {
+            return inputTicks.length;
+        }
+
+        long getInputTick(int i) {
+            return inputTicks[i];
+        }
+
+        int getDirection(int i) {
+            return directions[i];
+        }
+
+        long getFinalTick() {
+            return finalTick;
+        }
+
+        int getFinalScore() {
+            return finalScore;
+        }
+
+        /**
+         * Returns false if the recording was cut off before the game ended.
+         */
+        boolean isComplete() {
+            return finalScore >= 0;
+        }
+
+        /**
+         * Steers the engine with every input due at its current tick, starting from input
+         * {@code next}. Call before each step().
+         * @return The index of the first input not yet applied.
+         */
+        int feed(GameEngine engine, int next) {
+            while (next < inputTicks.length && inputTicks[next] == engine.getTick()) {
+                engine.steer(directions[next++]);
+            }
+            return next;
+        }
+
+        /**
+         * Replays the game headless, as fast as the engine can step.
+         * @param engine An engine on the recorded maze and ghost behaviour; it is reset to this game's seed.
+         * @return True if the replay ended on the recorded tick with the recorded score.
+         */
+        boolean replay(GameEngine engine) {
+            engine.reset(seed);
+            engine.start();
+            int next = 0;
+            while (engine.isRunning() && engine.getTick() < finalTick) {
+                next = feed(engine, next);
+                engine.step(GameEngine.NO_INPUT);
+            }
+            return engine.getTick() == finalTick && (!isComplete() || engine.getScore() == finalScore);
+        }
+    }
+}
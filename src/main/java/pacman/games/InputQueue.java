@@ -0,0 +1,62 @@
+package pacman.games;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single-producer/single-consumer queue of steering inputs, from the thread
+ * that receives key presses (the EDT) to the thread that ticks the engine.
+ * A bounded ring of ints: offer() and poll() never block or allocate, and each side only
+ * writes its own index, published with a release store and read with an acquire load.
+ * Unlike a single pending-input slot, two keys pressed within one tick both arrive, in order.
+ */
+final class InputQueue {
+
+    private final int[] ring;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // Next slot to read; written by the consumer only
+    private final AtomicLong tail = new AtomicLong(); // Next slot to write; written by the producer only
+
+    /**
+     * @param capacity Inputs held before offer() starts dropping; rounded up to a power of two.
+     */
+    InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        ring = new int[size];
+        mask = size - 1;
+    }
+
+    /**
+     * Adds an input. Producer thread only.
+     * @return False if the queue is full and the input was dropped.
+     */
+    boolean offer(int input) {
+        long t = tail.getPlain();
+        if (t - head.getAcquire() == ring.length) {
+            return false;
+        }
+        ring[(int) t & mask] = input;
+        tail.setRelease(t + 1); // Publishes the slot written above
+        return true;
+    }
+
+    /**
+     * Takes the oldest input. Consumer thread only.
+     * @return The input, or GameEngine.NO_INPUT if the queue is empty.
+     */
+    int poll() {
+        long h = head.getPlain();
+        if (h == tail.getAcquire()) {
+            return GameEngine.NO_INPUT;
+        }
+        int input = ring[(int) h & mask];
+        head.setRelease(h + 1); // Hands the slot back to the producer
+        return input;
+    }
+
+    /**
+     * Discards every queued input. Consumer thread only.
+     */
+    void clear() {
+        head.setRelease(tail.getAcquire());
+    }
+}
@@ -0,0 +1,152 @@
+package pacman.games;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the inputs of a session's games to a compact binary log that InputLog reads back.
+ * A game is fully determined by its maze, ghost behaviour, seed and steering inputs, so
+ * that is all a recording holds: a few bytes per key press instead of video.
+ * <pre>
+ * file    := MAGIC:int VERSION:byte mazeId:utf ghostBehaviour:utf game*
+ * game    := GAME_TAG:byte seed:long input* varint(0) varint(finalTickDelta) varint(finalScore)
+ * input   := varint(((tickDelta &lt;&lt; 2) | direction) + 1)
+ * utf     := length:short bytes (UTF-8)
+ * </pre>
+ * tickDelta counts ticks since the previous input (or the start of the game); an input
+ * with tick t was given when the engine's tick was t, before the next step(). Varints are
+ * unsigned LEB128, so an input costs one byte when keys are pressed less than 32 ticks apart.
+ * Output goes through a ByteBuffer and a FileChannel; it reaches the disk when the buffer
+ * fills, a game ends or the recorder is closed.
+ */
+final class InputRecorder implements Closeable {
+
+    static final int MAGIC = 0x504D524C; // "PMRL"
+    static final byte VERSION = 2; // 2: steering buffers turns into walls, so version 1 games replay differently
+    static final byte GAME_TAG = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_RECORD_SIZE = 32; // Largest game header, input or footer
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private boolean gameOpen;
+    private long lastTick; // Tick of the previous input, or 0 at the start of a game
+
+    /**
+     * Creates (or truncates) the file and writes the header.
+     * @param path File to write.
+     * @param maze Maze every recorded game is played on.
+     * @param ghostBehaviour Ghost behaviour every recorded game is played with.
+     */
+    InputRecorder(Path path, Maze maze, GhostBehaviour ghostBehaviour) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        buffer.putInt(MAGIC);
+        buffer.put(VERSION);
+        putString(maze.getId());
+        putString(ghostBehaviour.name());
+        flush();
+    }
+
+    /**
+     * Starts recording a new game, ending the previous one if it is still open.
+     * @param seed The engine seed of the game.
+     */
+    void startGame(long seed) {
+        ensureSpace();
+        buffer.put(GAME_TAG);
+        buffer.putLong(seed);
+        gameOpen = true;
+        lastTick = 0;
+    }
+
+    /**
+     * Records a steering input.
+     * @param tick The engine's tick when the input was given.
+     * @param direction One of GameEngine.UP, DOWN, LEFT, RIGHT.
+     */
+    void record(long tick, int direction) {
+        if (!gameOpen) {
+            return; // Input after the end of the game changes nothing
+        }
+        ensureSpace();
+        putVarint(((tick - lastTick) << 2 | direction) + 1);
+        lastTick = tick;
+    }
+
+    /**
+     * Ends the current game and writes it out.
+     * @param tick The engine's tick at the end.
+     * @param score The final score, checked when the game is replayed.
+     */
+    void endGame(long tick, int score) {
+        if (!gameOpen) {
+            return;
+        }
+        ensureSpace();
+        putVarint(0);
+        putVarint(tick - lastTick);
+        putVarint(score);
+        gameOpen = false;
+        flushUnchecked();
+    }
+
+    boolean isGameOpen() {
+        return gameOpen;
+    }
+
+    /**
+     * Flushes and closes the file. A game still open stays unterminated; InputLog reads it
+     * as ending at its last input.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureSpace() {
+        if (buffer.remaining() < MAX_RECORD_SIZE) {
+            flushUnchecked();
+        }
+    }
+
+    private void flushUnchecked() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write recording", e);
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
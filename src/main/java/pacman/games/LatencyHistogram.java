@@ -0,0 +1,117 @@
+package pacman.games;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of non-negative long values (nanoseconds, bytes) in the style of
+ * HdrHistogram: 64 linear sub-buckets per power of two, so any recorded value is known to
+ * within about 1.5% while the whole range of a long fits in a few thousand counters.
+ * Recording is a shift, a leading-zero count and an array increment, with no allocation,
+ * so it can sit on the tick path.
+ * One thread records; other threads (JMX, the overlay) may read at any time and see
+ * counts that are at most a recording or two behind.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS; // 64
+    private static final int BUCKET_COUNT = SUB_BUCKETS * (64 - SUB_BUCKET_BITS + 1);
+
+    private final long[] counts = new long[BUCKET_COUNT];
+    private volatile long count;
+    private volatile long max;
+    private volatile long sum;
+
+    /**
+     * Records one value; negative values count as 0.
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        counts[indexOf(value)]++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+        count++; // Last, so a reader that sees the count sees the bucket too
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+        sum = 0;
+    }
+
+    /**
+     * Adds every value recorded in another histogram to this one, e.g. to merge per-thread
+     * histograms for a report. The other histogram may be recording meanwhile.
+     */
+    void add(LatencyHistogram other) {
+        long added = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long n = other.counts[i];
+            counts[i] += n;
+            added += n;
+        }
+        sum += other.sum;
+        max = Math.max(max, other.max);
+        count += added; // Counted from the buckets, so percentiles stay consistent
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    double getMean() {
+        long n = count;
+        return n == 0 ? 0 : (double) sum / n;
+    }
+
+    /**
+     * Returns the value below which the given percentage of recorded values fall,
+     * rounded up to the end of its bucket, or 0 if nothing was recorded.
+     * @param percentile 0 to 100.
+     */
+    long getValueAtPercentile(double percentile) {
+        long n = count;
+        if (n == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(highestValueIn(i), max);
+            }
+        }
+        return max;
+    }
+
+    // Values below 2 * SUB_BUCKETS get a bucket each; above that, each power of two is split into SUB_BUCKETS
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long subBucket = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
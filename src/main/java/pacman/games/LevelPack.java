@@ -0,0 +1,265 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A numbered sequence of mazes stored in one binary file.
+ * <pre>
+ * file    := MAGIC:int VERSION:byte count:int offset:long[count] level*
+ * level   := cols:short rows:short pacManStart:int ghostHouse:int ghosts:short ghostStart:int[ghosts]
+ *            tiles:byte[cols * rows]
+ * </pre>
+ * Cells are row * cols + col; ghostHouse is -1 when each ghost returns to its own start;
+ * tiles use Maze's layout codes. Offsets are absolute file positions.
+ * The file is memory-mapped, and opening it only reads the header, so a pack of thousands
+ * of levels opens instantly and costs no heap. A level is decoded into a Maze (bitsets,
+ * move masks) on first use, and the most recently used ones are kept in a small LRU cache.
+ * Decoding checks the sizes, tile codes and start cells, so a corrupt level fails with
+ * "Corrupt level" when it is loaded rather than later inside the engine.
+ * Build packs with {@link #write(Path, List)} or the main method.
+ */
+final class LevelPack {
+
+    static final int MAGIC = 0x504D4C50; // "PMLP"
+    static final byte VERSION = 1;
+    static final int DEFAULT_CACHE_SIZE = 8;
+    private static final int HEADER_SIZE = 4 + 1 + 4;
+
+    private final Path path;
+    private final ByteBuffer data; // Read-only mapping, only read with absolute gets
+    private final int levelCount;
+    private final Map<Integer, Maze> cache; // In access order, eldest evicted past the cache size
+
+    private LevelPack(Path path, ByteBuffer data, int levelCount, int cacheSize) {
+        this.path = path;
+        this.data = data;
+        this.levelCount = levelCount;
+        cache = new LinkedHashMap<Integer, Maze>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Maze> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Maps a level pack, keeping up to DEFAULT_CACHE_SIZE decoded levels.
+     * @throws IOException If the file cannot be read or is not a level pack.
+     */
+    static LevelPack open(Path path) throws IOException {
+        return open(path, DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * Maps a level pack.
+     * @param cacheSize How many decoded levels to keep.
+     * @throws IOException If the file cannot be read or is not a level pack.
+     */
+    static LevelPack open(Path path, int cacheSize) throws IOException {
+        ByteBuffer data;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a level pack: " + path);
+        }
+        if (data.get(4) != VERSION) {
+            throw new IOException("Unsupported level pack version: " + path);
+        }
+        int count = data.getInt(5);
+        if (count < 0 || HEADER_SIZE + 8L * count > data.limit()) {
+            throw new IOException("Corrupt level pack: " + path);
+        }
+        return new LevelPack(path, data, count, cacheSize);
+    }
+
+    int getLevelCount() {
+        return levelCount;
+    }
+
+    /**
+     * Returns a level, decoding it if it is not cached. Safe to call from any thread.
+     * @param index 0 to getLevelCount() - 1.
+     * @throws UncheckedIOException If the level's data is corrupt.
+     */
+    synchronized Maze getLevel(int index) {
+        if (index < 0 || index >= levelCount) {
+            throw new IndexOutOfBoundsException("Level " + index + " of " + levelCount);
+        }
+        Maze maze = cache.get(index);
+        if (maze == null) {
+            maze = decode(index);
+            cache.put(index, maze);
+        }
+        return maze;
+    }
+
+    private Maze decode(int index) {
+        try {
+            long offset = data.getLong(HEADER_SIZE + 8 * index);
+            if (offset < HEADER_SIZE || offset > data.limit() - 14) {
+                throw corrupt(index, "offset " + offset + " outside the file");
+            }
+            int at = (int) offset;
+            int cols = Short.toUnsignedInt(data.getShort(at));
+            int rows = Short.toUnsignedInt(data.getShort(at + 2));
+            int pacManStart = data.getInt(at + 4);
+            int ghostHouse = data.getInt(at + 8);
+            int ghosts = Short.toUnsignedInt(data.getShort(at + 12));
+            at += 14;
+            if (cols == 0 || rows == 0) {
+                throw corrupt(index, "size " + cols + "x" + rows);
+            }
+            if ((long) cols * rows > data.limit() - at - 4L * ghosts) { // Long: 65535 * 65535 overflows an int
+                throw corrupt(index, "size " + cols + "x" + rows + " past the end of the file");
+            }
+            int cells = cols * rows;
+            int[] ghostStarts = new int[ghosts];
+            for (int i = 0; i < ghosts; i++, at += 4) {
+                ghostStarts[i] = data.getInt(at);
+            }
+            int[][] layout = new int[rows][cols];
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < cols; c++) {
+                    int tile = data.get(at++);
+                    if (tile < 0 || tile > 3) {
+                        throw corrupt(index, "tile code " + tile + " at " + (r * cols + c));
+                    }
+                    layout[r][c] = tile;
+                }
+            }
+
+            // Starts must be inside the maze, or the engine fails later on. Pac-Man must start on
+            // an open cell; ghosts may start inside a walled ghost house, as on the classic maze,
+            // as long as they have a way out
+            checkStart(index, "Pac-Man", pacManStart, cells, layout, cols, false);
+            int[] ghostStartXY = new int[2 * ghosts];
+            for (int i = 0; i < ghosts; i++) {
+                checkStart(index, "ghost " + i, ghostStarts[i], cells, layout, cols, true);
+                ghostStartXY[2 * i] = ghostStarts[i] % cols;
+                ghostStartXY[2 * i + 1] = ghostStarts[i] / cols;
+            }
+            if (ghostHouse != -1) {
+                checkStart(index, "ghost house", ghostHouse, cells, layout, cols, true);
+            }
+            return new Maze("level:" + index, layout, pacManStart % cols, pacManStart / cols, ghostStartXY,
+                    ghostHouse < 0 ? -1 : ghostHouse % cols, ghostHouse < 0 ? -1 : ghostHouse / cols);
+        } catch (IndexOutOfBoundsException e) {
+            throw corrupt(index, "truncated");
+        }
+    }
+
+    private void checkStart(int index, String actor, int cell, int cells, int[][] layout, int cols,
+                            boolean wallWithExit) {
+        if (cell < 0 || cell >= cells) {
+            throw corrupt(index, actor + " cell " + cell + " outside the maze");
+        }
+        int row = cell / cols;
+        int col = cell % cols;
+        if (layout[row][col] != 1) {
+            return;
+        }
+        if (wallWithExit) {
+            for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                int r = row + GameEngine.DIRECTION_DY[d];
+                int c = col + GameEngine.DIRECTION_DX[d];
+                if (r >= 0 && r < layout.length && c >= 0 && c < cols && layout[r][c] != 1) {
+                    return;
+                }
+            }
+        }
+        throw corrupt(index, actor + " cell " + cell + " is a wall" + (wallWithExit ? " with no way out" : ""));
+    }
+
+    private UncheckedIOException corrupt(int index, String reason) {
+        return new UncheckedIOException(new IOException("Corrupt level " + index + " in " + path + ": " + reason));
+    }
+
+    /**
+     * Writes mazes to a level pack, in order.
+     */
+    static void write(Path path, List<Maze> levels) throws IOException {
+        long size = HEADER_SIZE + 8L * levels.size();
+        for (Maze maze : levels) {
+            size += levelSize(maze);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            out.putInt(MAGIC);
+            out.put(VERSION);
+            out.putInt(levels.size());
+            long offset = HEADER_SIZE + 8L * levels.size();
+            for (Maze maze : levels) {
+                out.putLong(offset);
+                offset += levelSize(maze);
+            }
+            for (Maze maze : levels) {
+                putLevel(out, maze);
+            }
+        }
+    }
+
+    private static int levelSize(Maze maze) {
+        return 14 + 4 * maze.getGhostStartCount() + maze.getCellCount();
+    }
+
+    private static void putLevel(ByteBuffer out, Maze maze) {
+        out.putShort((short) maze.getCols());
+        out.putShort((short) maze.getRows());
+        out.putInt(maze.getPacManStart());
+        out.putInt(maze.getGhostHouse());
+        out.putShort((short) maze.getGhostStartCount());
+        for (int i = 0; i < maze.getGhostStartCount(); i++) {
+            out.putInt(maze.getGhostStart(i));
+        }
+        long[] pellets = maze.newPelletBits();
+        maze.copyPelletsInto(pellets);
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            if (maze.isWall(cell)) {
+                out.put((byte) 1);
+            } else if (Maze.isSet(pellets, cell)) {
+                out.put((byte) (maze.isPowerPellet(cell) ? 3 : 2));
+            } else {
+                out.put((byte) 0);
+            }
+        }
+    }
+
+    /**
+     * Writes a pack of generated levels: the classic maze first, then mazes that grow from
+     * 21x21 by two tiles a side every few levels, with a ghost more every other level.
+     * @param args FILE [levels] [seed]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: LevelPack FILE [levels] [seed]");
+            System.exit(2);
+        }
+        Path path = Paths.get(args[0]);
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1L;
+        List<Maze> levels = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (i == 0) {
+                levels.add(Maze.CLASSIC);
+            } else {
+                int size = Math.min(21 + 2 * (i / 4), 99);
+                int ghosts = Math.min(2 + i / 2, 40);
+                levels.add(MazeGenerator.generate(size, size, ghosts, BatchSimulator.gameSeed(seed, i)));
+            }
+        }
+        write(path, levels);
+        System.out.println("Wrote " + count + " levels to " + path);
+    }
+}
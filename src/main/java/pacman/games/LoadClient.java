@@ -0,0 +1,180 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Random;
+
+/**
+ * Load generator for GameServer: opens many sessions from one thread, steers each like a
+ * restless player and checks every frame by decoding it into a StateDecoder.
+ * Reports frames per second, the average full and delta frame sizes, and the time between
+ * a session's consecutive frames, whose spread around GameEngine.TICK_MILLIS shows how
+ * steadily the server ticks under this load.
+ * The client competes with the server for CPU when both run on one machine; compare the
+ * server's busy percentage and its own report of sessions per core.
+ */
+public class LoadClient {
+
+    private static final int TURN_ONE_IN = 4; // Per received frame, the chance a session sends a turn
+    private static final int MAX_FRAME = 1 << 16;
+
+    private final Random random = new Random(1);
+    private final ByteBuffer input = ByteBuffer.allocate(1);
+    private final LatencyHistogram interArrival = new LatencyHistogram(); // ns between a session's frames
+    private long fullFrames;
+    private long fullBytes;
+    private long deltaFrames;
+    private long deltaBytes;
+    private long gamesEnded;
+    private int disconnected;
+
+    /**
+     * One session's connection and its decoded game.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(4 * MAX_FRAME); // Received bytes not yet parsed, in write mode
+        final StateDecoder state = new StateDecoder();
+        long lastFrameNanos;
+        boolean restartSent;
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    private void run(String host, int port, int sessions, int seconds) throws IOException {
+        try (Selector selector = Selector.open()) {
+            InetSocketAddress address = new InetSocketAddress(host, port);
+            for (int i = 0; i < sessions; i++) {
+                SocketChannel channel = SocketChannel.open(address); // Blocking connect, then non-blocking
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            }
+            System.out.println("Connected " + sessions + " sessions to " + address);
+
+            // First second is warm-up: the frames are checked but not measured
+            long start = System.nanoTime();
+            long measureFrom = start + 1_000_000_000L;
+            long end = measureFrom + seconds * 1_000_000_000L;
+            boolean measuring = false;
+            for (long now = start; now < end; now = System.nanoTime()) {
+                if (!measuring && now >= measureFrom) {
+                    interArrival.reset();
+                    fullFrames = 0;
+                    fullBytes = 0;
+                    deltaFrames = 0;
+                    deltaBytes = 0;
+                    gamesEnded = 0;
+                    measuring = true;
+                }
+                selector.select(Math.max(1, (end - now) / 1_000_000));
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isReadable()) {
+                        Connection connection = (Connection) key.attachment();
+                        if (!read(connection)) {
+                            key.cancel();
+                            connection.channel.close();
+                            disconnected++;
+                        }
+                    }
+                }
+            }
+            report(sessions, seconds);
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+    }
+
+    // Reads and applies every complete frame; false if the session is over
+    private boolean read(Connection connection) throws IOException {
+        ByteBuffer in = connection.in;
+        if (connection.channel.read(in) < 0) {
+            return false;
+        }
+        in.flip();
+        while (in.remaining() >= 4 && in.remaining() - 4 >= in.getInt(in.position())) {
+            int length = in.getInt();
+            if (length <= 0 || length > MAX_FRAME) {
+                throw new IOException("Bad frame length " + length);
+            }
+            ByteBuffer frame = in.slice();
+            frame.limit(length);
+            in.position(in.position() + length);
+            boolean full = frame.get(0) == StateEncoder.FULL;
+            connection.state.apply(frame);
+            onFrame(connection, full, 4 + length);
+        }
+        in.compact();
+        return true;
+    }
+
+    private void onFrame(Connection connection, boolean full, int bytes) throws IOException {
+        long now = System.nanoTime();
+        if (connection.lastFrameNanos != 0 && !full) {
+            interArrival.record(now - connection.lastFrameNanos);
+        }
+        connection.lastFrameNanos = now;
+        if (full) {
+            fullFrames++;
+            fullBytes += bytes;
+        } else {
+            deltaFrames++;
+            deltaBytes += bytes;
+        }
+
+        StateDecoder state = connection.state;
+        if (!state.isRunning()) {
+            if (!connection.restartSent) {
+                gamesEnded++;
+                connection.restartSent = true;
+                send(connection, GameServer.RESTART);
+            }
+        } else {
+            connection.restartSent = false;
+            if (random.nextInt(TURN_ONE_IN) == 0) {
+                send(connection, (byte) random.nextInt(4));
+            }
+        }
+    }
+
+    private void send(Connection connection, byte value) throws IOException {
+        input.clear();
+        input.put(value).flip();
+        connection.channel.write(input); // A byte that does not fit the socket buffer is dropped, like a missed key
+    }
+
+    private void report(int sessions, int seconds) {
+        System.out.printf("%d sessions (%d disconnected), %.0f frames/s, %d games ended%n",
+                sessions, disconnected, (fullFrames + deltaFrames) / (double) seconds, gamesEnded);
+        System.out.printf("%d delta frames averaging %.1f bytes, %d full frames averaging %.1f bytes%n",
+                deltaFrames, deltaBytes / (double) Math.max(1, deltaFrames),
+                fullFrames, fullBytes / (double) Math.max(1, fullFrames));
+        System.out.printf("Frame inter-arrival (tick is %d ms): p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, max %.1f ms%n",
+                GameEngine.TICK_MILLIS, interArrival.getValueAtPercentile(50) / 1e6,
+                interArrival.getValueAtPercentile(99) / 1e6, interArrival.getValueAtPercentile(99.9) / 1e6,
+                interArrival.getMax() / 1e6);
+    }
+
+    /**
+     * @param args [host] [port] [sessions] [seconds]
+     */
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : GameServer.DEFAULT_PORT;
+        int sessions = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+        new LoadClient().run(host, port, sessions, seconds);
+    }
+}
@@ -0,0 +1,393 @@
+package pacman.games;
+
+/**
+ * Immutable maze layout shared by every game played on it.
+ * Cells are numbered row * cols + col. Walls, starting pellets and power pellets are
+ * bitsets (one bit per cell in a long[]), and the legal moves out of every cell are
+ * precomputed once as a 4-bit mask, so a game only needs its own pellet bitset.
+ * Shortest-path distances used by the ghost AI are also computed once per maze, lazily,
+ * the first time a game asks for them.
+ */
+final class Maze {
+
+    // Maze layout (1 for wall, 0 for empty, 2 for pellet, 3 for power pellet)
+    // This is a simplified maze for demonstration.
+    private static final int[][] CLASSIC_LAYOUT = {
+            {1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1},
+            {1,2,2,2,2,2,2,2,2,1,2,2,2,2,2,2,2,2,2,3,1},
+            {1,2,1,1,1,1,1,2,1,1,1,2,1,1,1,1,1,2,1,1,1},
+            {1,3,1,2,2,2,1,2,2,2,2,2,2,2,2,2,1,2,2,2,1},
+            {1,2,2,2,1,2,1,1,2,1,1,1,1,1,1,2,1,2,1,2,1},
+            {1,2,1,2,1,2,2,2,2,2,2,2,2,2,1,2,1,2,1,2,1},
+            {1,2,1,1,1,1,2,1,1,1,1,1,1,2,1,2,1,2,1,2,1},
+            {1,2,2,2,2,2,2,2,2,2,2,2,2,2,1,2,1,2,2,2,1},
+            {1,1,1,1,2,1,1,2,1,1,1,1,1,2,1,2,1,1,2,1,1},
+            {1,2,2,2,2,2,1,2,2,0,0,0,1,2,2,2,1,2,2,2,1}, // Ghost house entrance
+            {1,1,1,1,1,2,1,1,1,0,0,0,1,1,1,2,1,1,2,1,1}, // Ghost house
+            {1,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,1},
+            {1,2,1,1,1,1,1,1,1,1,2,1,1,1,1,1,2,1,1,2,1},
+            {1,2,1,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,1,2,1},
+            {1,2,1,2,1,1,1,1,1,1,1,1,1,1,1,1,1,2,1,2,1},
+            {1,2,1,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,1,2,1},
+            {1,2,1,1,1,2,1,1,1,1,1,1,1,1,2,1,1,1,1,2,1},
+            {1,2,2,2,2,2,2,2,2,1,2,2,2,2,2,2,2,2,2,2,1},
+            {1,1,1,1,1,1,1,2,1,1,1,2,1,1,1,1,1,2,1,1,1},
+            {1,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,2,3,1},
+            {1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1}
+    };
+
+    // Ghost start positions in the classic maze (x0, y0, x1, y1), both inside the ghost house
+    private static final int[] CLASSIC_GHOST_STARTS = {21 / 2 - 2, 21 / 2 - 2, 21 / 2 + 1, 21 / 2 - 2};
+
+    // The original 21x21 maze, with Pac-Man below the ghost house and two ghosts inside it
+    static final Maze CLASSIC = classic(2);
+
+    private final String id; // Names the maze so it can be rebuilt, see forId()
+    private final int cols;
+    private final int rows;
+    private final long[] walls;
+    private final long[] pellets; // Pellets and power pellets at the start of a game
+    private final long[] powerPellets; // The subset of pellets that are power pellets
+    private final byte[] moves; // Legal move mask per cell, bit d set when direction d is open
+    private final int pelletCount;
+    private final int pacManStart; // Cell Pac-Man starts on
+    private final int[] ghostStarts; // Cells the ghosts start on, one per ghost
+    private final int ghostHouse; // Cell eaten ghosts return to, or -1 to send each back to its own start
+
+    // --- Lazily computed distance tables, shared by every game on this maze ---
+    static final int SCATTER_CORNERS = 4; // Top-left, top-right, bottom-left, bottom-right
+    private static final int ALL_PAIRS_MAX_OPEN_CELLS = 2048; // Keeps the table at 8 MB at most
+    private final int openCellCount;
+    private volatile short[] allPairs; // [openIndex(from) * openCellCount + openIndex(to)], -1 if unreachable
+    private int[] openIndex; // Cell -> index among open cells, -1 for walls
+    private volatile DistanceField[] scatterFields; // Distances to each scatter corner
+
+    /**
+     * Builds a maze from a tile layout.
+     * @param layout Tiles by [row][col]: 0=empty, 1=wall, 2=pellet, 3=power pellet.
+     * @param pacManX Pac-Man's start column.
+     * @param pacManY Pac-Man's start row.
+     * @param ghostStartXY Ghost start positions as x0, y0, x1, y1, ...
+     *                     Eaten ghosts return to the first of them, the ghost house.
+     */
+    Maze(int[][] layout, int pacManX, int pacManY, int[] ghostStartXY) {
+        this("custom", layout, pacManX, pacManY, ghostStartXY, ghostStartXY[0], ghostStartXY[1]);
+    }
+
+    /**
+     * Builds a maze from a tile layout.
+     * @param id Name that forId() rebuilds the same maze from.
+     * @param layout Tiles by [row][col]: 0=empty, 1=wall, 2=pellet, 3=power pellet.
+     * @param pacManX Pac-Man's start column.
+     * @param pacManY Pac-Man's start row.
+     * @param ghostStartXY Ghost start positions as x0, y0, x1, y1, ...
+     * @param ghostHouseX Column eaten ghosts return to, or -1 to return each to its own start.
+     * @param ghostHouseY Row eaten ghosts return to, or -1.
+     */
+    Maze(String id, int[][] layout, int pacManX, int pacManY, int[] ghostStartXY, int ghostHouseX, int ghostHouseY) {
+        this.id = id;
+        rows = layout.length;
+        cols = layout[0].length;
+        int cells = rows * cols;
+        walls = new long[bitsetLength(cells)];
+        pellets = new long[bitsetLength(cells)];
+        powerPellets = new long[bitsetLength(cells)];
+        int count = 0;
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int cell = r * cols + c;
+                switch (layout[r][c]) {
+                    case 1:
+                        set(walls, cell);
+                        break;
+                    case 3:
+                        set(powerPellets, cell);
+                        set(pellets, cell); // A power pellet is also a pellet
+                        count++;
+                        break;
+                    case 2:
+                        set(pellets, cell);
+                        count++;
+                        break;
+                }
+            }
+        }
+        pelletCount = count;
+
+        moves = new byte[cells];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                int mask = 0;
+                for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                    int x = c + GameEngine.DIRECTION_DX[d];
+                    int y = r + GameEngine.DIRECTION_DY[d];
+                    if (x >= 0 && x < cols && y >= 0 && y < rows && !isSet(walls, y * cols + x)) {
+                        mask |= 1 << d;
+                    }
+                }
+                moves[r * cols + c] = (byte) mask;
+            }
+        }
+
+        openCellCount = cells - countBits(walls);
+
+        pacManStart = pacManY * cols + pacManX;
+        ghostStarts = new int[ghostStartXY.length / 2];
+        for (int i = 0; i < ghostStarts.length; i++) {
+            ghostStarts[i] = ghostStartXY[2 * i + 1] * cols + ghostStartXY[2 * i];
+        }
+        ghostHouse = ghostHouseX < 0 ? -1 : ghostHouseY * cols + ghostHouseX;
+    }
+
+    /**
+     * Returns the classic 21x21 maze with the given number of ghosts.
+     * Ghosts take turns on the two ghost house start cells.
+     */
+    static Maze classic(int ghostCount) {
+        int[] ghostStartXY = new int[2 * ghostCount];
+        for (int i = 0; i < ghostStartXY.length; i++) {
+            ghostStartXY[i] = CLASSIC_GHOST_STARTS[i % CLASSIC_GHOST_STARTS.length];
+        }
+        return new Maze(ghostCount == 2 ? "classic" : "classic:" + ghostCount,
+                CLASSIC_LAYOUT, 21 / 2 - 1, 21 / 2 + 3, ghostStartXY,
+                CLASSIC_GHOST_STARTS[0], CLASSIC_GHOST_STARTS[1]);
+    }
+
+    /**
+     * Rebuilds a maze from its id: "classic", "classic:GHOSTS" or
+     * "generated:WxH:GHOSTS:SEED". Recordings store the id instead of the layout.
+     * @throws IllegalArgumentException If the id is not one of these forms.
+     */
+    static Maze forId(String id) {
+        String[] parts = id.split(":");
+        try {
+            if (parts[0].equals("classic") && parts.length <= 2) {
+                return parts.length == 1 ? CLASSIC : classic(Integer.parseInt(parts[1]));
+            }
+            if (parts[0].equals("generated") && parts.length == 4) {
+                String[] size = parts[1].split("x");
+                return MazeGenerator.generate(Integer.parseInt(size[0]), Integer.parseInt(size[1]),
+                        Integer.parseInt(parts[2]), Long.parseLong(parts[3]));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed maze id: " + id, e);
+        }
+        throw new IllegalArgumentException("Unknown maze id: " + id);
+    }
+
+    // --- Bitset helpers ---
+
+    static int countBits(long[] bits) {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    static int bitsetLength(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static boolean isSet(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+
+    /**
+     * Returns the first set bit at or after fromIndex, or -1 if there is none.
+     */
+    static int nextSetBit(long[] bits, int fromIndex) {
+        int word = fromIndex >>> 6;
+        if (word >= bits.length) {
+            return -1;
+        }
+        long remaining = bits[word] & (-1L << fromIndex);
+        while (true) {
+            if (remaining != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(remaining);
+            }
+            if (++word == bits.length) {
+                return -1;
+            }
+            remaining = bits[word];
+        }
+    }
+
+    // --- Layout queries ---
+
+    String getId() {
+        return id;
+    }
+
+    int getCols() {
+        return cols;
+    }
+
+    int getRows() {
+        return rows;
+    }
+
+    int getCellCount() {
+        return rows * cols;
+    }
+
+    boolean isWall(int cell) {
+        return isSet(walls, cell);
+    }
+
+    /**
+     * Returns true if the cell starts the game with a power pellet (rather than a plain one).
+     */
+    boolean isPowerPellet(int cell) {
+        return isSet(powerPellets, cell);
+    }
+
+    /**
+     * Returns the legal move mask of a cell: bit d is set when direction d leads off walls.
+     */
+    int getMoves(int cell) {
+        return moves[cell];
+    }
+
+    int getPelletCount() {
+        return pelletCount;
+    }
+
+    int getPacManStart() {
+        return pacManStart;
+    }
+
+    int getGhostStart(int ghost) {
+        return ghostStarts[ghost];
+    }
+
+    int getGhostStartCount() {
+        return ghostStarts.length;
+    }
+
+    /**
+     * Returns the ghost house cell, or -1 if each ghost returns to its own start.
+     */
+    int getGhostHouse() {
+        return ghostHouse;
+    }
+
+    /**
+     * Returns the cell a ghost goes back to when it is eaten or Pac-Man loses a life.
+     */
+    int getGhostRespawn(int ghost) {
+        return ghostHouse >= 0 ? ghostHouse : ghostStarts[ghost];
+    }
+
+    // --- Shortest paths ---
+
+    /**
+     * Returns true if the maze is small enough to keep an all-pairs distance table,
+     * making distance(from, to) available.
+     */
+    boolean hasDistanceTable() {
+        return openCellCount <= ALL_PAIRS_MAX_OPEN_CELLS;
+    }
+
+    /**
+     * Returns the shortest-path distance between two open cells, or DistanceField.UNREACHABLE.
+     * Only valid when hasDistanceTable() is true; the table is built on first use.
+     */
+    int distance(int from, int to) {
+        short[] table = allPairs;
+        if (table == null) {
+            table = computeAllPairs();
+        }
+        int d = table[openIndex[from] * openCellCount + openIndex[to]];
+        return d < 0 ? DistanceField.UNREACHABLE : d;
+    }
+
+    private synchronized short[] computeAllPairs() {
+        if (allPairs != null) {
+            return allPairs;
+        }
+        int cells = getCellCount();
+        int[] index = new int[cells];
+        int open = 0;
+        for (int cell = 0; cell < cells; cell++) {
+            index[cell] = isWall(cell) ? -1 : open++;
+        }
+        short[] table = new short[openCellCount * openCellCount];
+        DistanceField field = new DistanceField(this);
+        for (int from = 0; from < cells; from++) {
+            if (index[from] < 0) {
+                continue;
+            }
+            field.compute(from);
+            int row = index[from] * openCellCount;
+            for (int to = 0; to < cells; to++) {
+                if (index[to] >= 0) {
+                    int d = field.get(to);
+                    table[row + index[to]] = d == DistanceField.UNREACHABLE ? -1 : (short) d;
+                }
+            }
+        }
+        openIndex = index; // Published by the volatile write below
+        allPairs = table;
+        return table;
+    }
+
+    /**
+     * Returns the distances to one of the scatter corners: the open cell nearest to each
+     * corner of the maze. Built on first use.
+     * @param corner 0 to SCATTER_CORNERS - 1.
+     */
+    DistanceField getScatterField(int corner) {
+        DistanceField[] fields = scatterFields;
+        if (fields == null) {
+            fields = computeScatterFields();
+        }
+        return fields[corner];
+    }
+
+    private synchronized DistanceField[] computeScatterFields() {
+        if (scatterFields != null) {
+            return scatterFields;
+        }
+        DistanceField[] fields = new DistanceField[SCATTER_CORNERS];
+        for (int corner = 0; corner < SCATTER_CORNERS; corner++) {
+            int cornerX = (corner & 1) == 0 ? 0 : cols - 1;
+            int cornerY = (corner & 2) == 0 ? 0 : rows - 1;
+            int nearest = -1;
+            int nearestDistance = Integer.MAX_VALUE;
+            for (int cell = 0; cell < getCellCount(); cell++) {
+                int d = Math.abs(cell % cols - cornerX) + Math.abs(cell / cols - cornerY);
+                if (!isWall(cell) && d < nearestDistance) {
+                    nearest = cell;
+                    nearestDistance = d;
+                }
+            }
+            fields[corner] = new DistanceField(this);
+            fields[corner].compute(nearest);
+        }
+        scatterFields = fields;
+        return fields;
+    }
+
+    /**
+     * Allocates a pellet bitset sized for this maze.
+     */
+    long[] newPelletBits() {
+        return new long[pellets.length];
+    }
+
+    /**
+     * Resets a pellet bitset to the maze's starting pellets.
+     */
+    void copyPelletsInto(long[] target) {
+        System.arraycopy(pellets, 0, target, 0, pellets.length);
+    }
+}
@@ -0,0 +1,148 @@
+package pacman.games;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Builds random mazes of any size from a seed, for stress-testing the engine far beyond
+ * the classic 21x21 board. The same size, ghost count and seed always give the same maze.
+ * Corridors are carved as a spanning tree over every other cell (a depth-first "recursive
+ * backtracker", run with an explicit stack so 1000x1000 mazes do not overflow the call stack),
+ * then some walls are knocked out so there are loops to escape ghosts around.
+ */
+final class MazeGenerator {
+
+    static final int MIN_SIZE = 5; // Smallest width or height with a corridor in it
+    private static final int LOOP_PERCENT = 10; // Chance, in percent, of opening each wall between two corridors
+
+    // Tile codes, as in Maze's layout
+    private static final int EMPTY = 0;
+    private static final int WALL = 1;
+    private static final int PELLET = 2;
+    private static final int POWER_PELLET = 3;
+
+    private MazeGenerator() {
+    }
+
+    /**
+     * Generates a maze with pellets on every open tile, a power pellet near each corner,
+     * Pac-Man near the middle and the ghosts scattered away from him. Each ghost returns to
+     * its own start when eaten, so hundreds of ghosts do not pile up on one tile.
+     * @param cols Width in tiles, at least MIN_SIZE.
+     * @param rows Height in tiles, at least MIN_SIZE.
+     * @param ghostCount Number of ghosts.
+     * @param seed Seed for the layout and the start positions.
+     */
+    static Maze generate(int cols, int rows, int ghostCount, long seed) {
+        if (cols < MIN_SIZE || rows < MIN_SIZE) {
+            throw new IllegalArgumentException("Maze must be at least " + MIN_SIZE + "x" + MIN_SIZE
+                    + ", got " + cols + "x" + rows);
+        }
+        if (ghostCount < 0) {
+            throw new IllegalArgumentException("Negative ghost count: " + ghostCount);
+        }
+        Random random = new Random(seed);
+        int[][] layout = new int[rows][cols];
+        for (int[] row : layout) {
+            Arrays.fill(row, WALL);
+        }
+
+        carve(layout, random);
+        addLoops(layout, random);
+
+        // Pellets everywhere, power pellets in the corner corridors
+        for (int[] row : layout) {
+            for (int c = 0; c < cols; c++) {
+                if (row[c] != WALL) {
+                    row[c] = PELLET;
+                }
+            }
+        }
+        int right = ((cols - 1) / 2) * 2 - 1; // Last odd column and row, always open
+        int bottom = ((rows - 1) / 2) * 2 - 1;
+        layout[1][1] = POWER_PELLET;
+        layout[1][right] = POWER_PELLET;
+        layout[bottom][1] = POWER_PELLET;
+        layout[bottom][right] = POWER_PELLET;
+
+        // Pac-Man on the corridor cell nearest the middle
+        int pacManX = ((cols - 1) / 4) * 2 + 1;
+        int pacManY = ((rows - 1) / 4) * 2 + 1;
+        layout[pacManY][pacManX] = EMPTY;
+
+        // Ghosts on random open tiles, not too close to Pac-Man
+        int minDistance = Math.max(2, Math.min(cols, rows) / 4);
+        int[] ghostStartXY = new int[2 * ghostCount];
+        for (int i = 0; i < ghostCount; i++) {
+            int x, y;
+            do {
+                x = random.nextInt(cols);
+                y = random.nextInt(rows);
+            } while (layout[y][x] == WALL || Math.abs(x - pacManX) + Math.abs(y - pacManY) < minDistance);
+            ghostStartXY[2 * i] = x;
+            ghostStartXY[2 * i + 1] = y;
+        }
+
+        String id = "generated:" + cols + "x" + rows + ":" + ghostCount + ":" + seed;
+        return new Maze(id, layout, pacManX, pacManY, ghostStartXY, -1, -1);
+    }
+
+    /**
+     * Opens a spanning tree of corridors over the cells with odd row and column.
+     */
+    private static void carve(int[][] layout, Random random) {
+        int latticeCols = (layout[0].length - 1) / 2;
+        int latticeRows = (layout.length - 1) / 2;
+        int[] stack = new int[latticeCols * latticeRows]; // Lattice cells, row * latticeCols + col
+        int[] options = new int[4];
+
+        int start = random.nextInt(stack.length);
+        layout[2 * (start / latticeCols) + 1][2 * (start % latticeCols) + 1] = EMPTY;
+        stack[0] = start;
+        int size = 1;
+        while (size > 0) {
+            int current = stack[size - 1];
+            int col = current % latticeCols;
+            int row = current / latticeCols;
+
+            // Unvisited neighbours, in UP, DOWN, LEFT, RIGHT order
+            int count = 0;
+            for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                int c = col + GameEngine.DIRECTION_DX[d];
+                int r = row + GameEngine.DIRECTION_DY[d];
+                if (c >= 0 && c < latticeCols && r >= 0 && r < latticeRows && layout[2 * r + 1][2 * c + 1] == WALL) {
+                    options[count++] = d;
+                }
+            }
+            if (count == 0) {
+                size--; // Dead end: backtrack
+                continue;
+            }
+            int d = options[random.nextInt(count)];
+            // Open the wall between the two cells, then the neighbour itself
+            layout[2 * row + 1 + GameEngine.DIRECTION_DY[d]][2 * col + 1 + GameEngine.DIRECTION_DX[d]] = EMPTY;
+            int next = current + GameEngine.DIRECTION_DX[d] + GameEngine.DIRECTION_DY[d] * latticeCols;
+            layout[2 * (next / latticeCols) + 1][2 * (next % latticeCols) + 1] = EMPTY;
+            stack[size++] = next;
+        }
+    }
+
+    /**
+     * Knocks out some of the walls that separate two corridors, turning the tree into a graph with loops.
+     */
+    private static void addLoops(int[][] layout, Random random) {
+        for (int r = 1; r < layout.length - 1; r++) {
+            for (int c = 1; c < layout[r].length - 1; c++) {
+                if (layout[r][c] != WALL || (r % 2 == 1) == (c % 2 == 1)) {
+                    continue; // Only walls between two lattice cells
+                }
+                boolean betweenCorridors = r % 2 == 1
+                        ? layout[r][c - 1] != WALL && layout[r][c + 1] != WALL
+                        : layout[r - 1][c] != WALL && layout[r + 1][c] != WALL;
+                if (betweenCorridors && random.nextInt(100) < LOOP_PERCENT) {
+                    layout[r][c] = EMPTY;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package pacman.games;
+
+import java.awt.*;
+
+/**
+ * Small panel of live GameMetrics drawn over the top-left corner of the board, toggled with F3.
+ * Formatting the text allocates, so the overlay itself shows up in paint times and is
+ * off by default.
+ */
+final class MetricsOverlay {
+
+    private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+    private static final int LINES = 6;
+    private static final int LINE_HEIGHT = 14;
+    private static final int PADDING = 4;
+    static final int WIDTH = 290;
+    static final int HEIGHT = LINES * LINE_HEIGHT + 2 * PADDING;
+
+    private final GameMetrics metrics;
+    private volatile boolean visible; // Toggled on the EDT, read by whichever thread paints
+
+    MetricsOverlay(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    boolean isVisible() {
+        return visible;
+    }
+
+    void toggle() {
+        visible = !visible;
+    }
+
+    /**
+     * Draws the overlay if it is visible.
+     */
+    void draw(Graphics g) {
+        if (!visible) {
+            return;
+        }
+        g.setColor(BACKGROUND);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(Color.GREEN);
+        g.setFont(FONT);
+        int y = PADDING + LINE_HEIGHT - 3;
+        g.drawString(String.format("tick   p50 %5d  p99 %5d  max %6d us",
+                metrics.getTickP50Micros(), metrics.getTickP99Micros(), metrics.getTickMaxMicros()), PADDING, y);
+        y += LINE_HEIGHT;
+        g.drawString(String.format("paint  p50 %5d  p99 %5d  max %6d us",
+                metrics.getPaintP50Micros(), metrics.getPaintP99Micros(), metrics.getPaintMaxMicros()), PADDING, y);
+        y += LINE_HEIGHT;
+        g.drawString(String.format("drift  p50 %5d  p99 %5d  max %6d us",
+                metrics.getTimerDriftP50Micros(), metrics.getTimerDriftP99Micros(),
+                metrics.getTimerDriftMaxMicros()), PADDING, y);
+        y += LINE_HEIGHT;
+        g.drawString(String.format("alloc  %.1f B/tick  max %d B",
+                metrics.getAllocatedBytesPerTick(), metrics.getMaxAllocatedBytesPerTick()), PADDING, y);
+        y += LINE_HEIGHT;
+        g.drawString(String.format("games %d  pellets %d  ghosts %d",
+                metrics.getGamesPlayed(), metrics.getPelletsEaten(), metrics.getGhostsEaten()), PADDING, y);
+        y += LINE_HEIGHT;
+        g.drawString(String.format("lives lost %d  ticks %d",
+                metrics.getLivesLost(), metrics.getTicks()), PADDING, y);
+    }
+}
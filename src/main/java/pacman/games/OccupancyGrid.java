@@ -0,0 +1,85 @@
+package pacman.games;
+
+import java.util.Arrays;
+
+/**
+ * Spatial index of actors by cell, so "who is on this tile?" costs the number of actors on
+ * the tile instead of the number of actors in the game.
+ * Each cell heads an intrusive singly linked list threaded through a next[] array indexed by
+ * actor, kept in increasing actor order so lookups visit actors in the same order as a scan
+ * over all of them would. Nothing is allocated after construction.
+ */
+final class OccupancyGrid {
+
+    private static final int NONE = -1;
+
+    private final int[] head; // First actor on each cell, or NONE
+    private final int[] next; // Next actor on the same cell, or NONE
+    private final int[] cellOf; // Cell each actor is filed under, or NONE
+
+    /**
+     * @param cells Number of cells in the maze.
+     * @param actors Number of actors that can be placed, numbered from 0.
+     */
+    OccupancyGrid(int cells, int actors) {
+        head = new int[cells];
+        next = new int[actors];
+        cellOf = new int[actors];
+        Arrays.fill(head, NONE);
+        Arrays.fill(cellOf, NONE);
+    }
+
+    /**
+     * Files an actor under a cell, first removing it from the cell it was on.
+     */
+    void move(int actor, int cell) {
+        if (cellOf[actor] == cell) {
+            return;
+        }
+        if (cellOf[actor] != NONE) {
+            remove(actor);
+        }
+        // Insert keeping the list in increasing actor order
+        int previous = NONE;
+        int current = head[cell];
+        while (current != NONE && current < actor) {
+            previous = current;
+            current = next[current];
+        }
+        next[actor] = current;
+        if (previous == NONE) {
+            head[cell] = actor;
+        } else {
+            next[previous] = actor;
+        }
+        cellOf[actor] = cell;
+    }
+
+    private void remove(int actor) {
+        int cell = cellOf[actor];
+        if (head[cell] == actor) {
+            head[cell] = next[actor];
+        } else {
+            int previous = head[cell];
+            while (next[previous] != actor) {
+                previous = next[previous];
+            }
+            next[previous] = next[actor];
+        }
+        cellOf[actor] = NONE;
+    }
+
+    /**
+     * Returns the lowest-numbered actor on a cell, or -1 if the cell is empty.
+     */
+    int first(int cell) {
+        return head[cell];
+    }
+
+    /**
+     * Returns the next actor on the same cell as the given one, or -1 if it is the last.
+     */
+    int next(int actor) {
+        return next[actor];
+    }
+}
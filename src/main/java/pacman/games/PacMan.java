@@ -0,0 +1,46 @@
+package pacman.games;
+
+/**
+ * Represents the Pac-Man character.
+ */
+class PacMan {
+    int x, y; // Current grid coordinates
+    int prevX, prevY; // Grid coordinates before the last tick, for interpolated drawing
+    int dx, dy; // Direction vector (e.g., dx=1, dy=0 for right)
+    double mouthAngle = 0; // Starting mouth angle (0 for closed, opens up to 45)
+    double mouthSpeed = 5; // Speed of mouth animation
+    int lives;
+
+    public PacMan(int startX, int startY, int initialLives) {
+        this.x = this.prevX = startX;
+        this.y = this.prevY = startY;
+        this.dx = 1; // Initial direction: right
+        this.dy = 0;
+        this.lives = initialLives;
+    }
+
+    // Resets Pac-Man's position and direction after losing a life
+    public void reset(int startX, int startY) {
+        this.x = this.prevX = startX; // Jump straight to the start, no interpolation
+        this.y = this.prevY = startY;
+        this.dx = 1; // Reset direction to right
+        this.dy = 0;
+        this.mouthAngle = 0; // Reset mouth to closed
+        this.mouthSpeed = 5;
+    }
+
+    public void move() {
+        x += dx;
+        y += dy;
+
+        // Animate mouth: opens from 0 to 45, then closes back to 0
+        mouthAngle += mouthSpeed;
+        if (mouthAngle >= 45) { // If mouth is fully open
+            mouthAngle = 45; // Cap it
+            mouthSpeed *= -1; // Reverse to close
+        } else if (mouthAngle <= 0) { // If mouth is fully closed
+            mouthAngle = 0; // Cap it
+            mouthSpeed *= -1; // Reverse to open
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package pacman.games; // You can adjust this package name
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Main class for the Pac-Man Game.
+ * Sets up the JFrame and adds the GamePanel.
+ */
+public class PacManGame extends JFrame {
+
+    public PacManGame(GameOptions options) {
+        // Create and set up the game panel
+        GamePanel gamePanel = new GamePanel(options);
+        this.add(gamePanel); // Add the game panel to the frame
+        this.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                gamePanel.stopRecording(); // Finish the recording file before the JVM exits
+            }
+        });
+
+        // Set frame properties
+        this.setTitle(gamePanel.getTitle());
+        this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE); // Close operation
+        this.setResizable(false); // Prevent resizing
+        this.pack(); // Sizes the frame so that all its contents are at or above their preferred sizes
+        this.setLocationRelativeTo(null); // Center the window on the screen
+        this.setVisible(true); // Make the frame visible
+    }
+
+    /**
+     * Main method to start the Pac-Man Game.
+     * @param args Command line arguments, see {@link GameOptions#parse(String[])}.
+     */
+    public static void main(String[] args) {
+        GameOptions options = GameOptions.parse(args);
+        options.getMaze(); // Generate a large maze before the window opens
+
+        if (options.isExitAfterFirstFrame() && GraphicsEnvironment.isHeadless()) {
+            // No display, e.g. a build machine making the CDS archive: paint the first frame offscreen
+            SwingUtilities.invokeLater(() -> {
+                GamePanel panel = new GamePanel(options);
+                panel.setSize(panel.getPreferredSize());
+                BufferedImage image = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+                Graphics g = image.getGraphics();
+                panel.paint(g); // Exits once painted
+            });
+            return;
+        }
+
+        // Run the game on the Event Dispatch Thread (EDT) for Swing applications
+        SwingUtilities.invokeLater(() -> {
+            if (options.isActiveLoop()) {
+                new ActiveRenderingGame(options).start();
+            } else {
+                new PacManGame(options);
+            }
+        });
+    }
+
+    /**
+     * Called by either game loop once its first frame is drawn: records the time since the
+     * JVM started, then either exits (when only startup is being measured) or finishes the
+     * setup that was held back to get the frame up sooner.
+     */
+    static void firstFrameShown(GameOptions options, GameMetrics metrics) {
+        // JVM uptime rather than ProcessHandle's start instant, which is only as good as the OS clock
+        long millis = ManagementFactory.getRuntimeMXBean().getUptime();
+        metrics.setTimeToFirstFrameMillis(millis);
+        if (options.isExitAfterFirstFrame()) {
+            System.out.println("First frame after " + millis + " ms");
+            System.exit(0);
+        }
+        metrics.register(); // JMX loads a few hundred classes; nobody can attach before the window is up anyway
+    }
+}
+
+/**
+ * GamePanel draws the game and forwards user input to the GameEngine.
+ * It extends JPanel and implements ActionListener for game updates
+ * and KeyListener for user input. All game rules live in GameEngine.
+ */
+class GamePanel extends JPanel implements ActionListener {
+
+    // --- Game Constants ---
+    private final int DELAY = GameEngine.TICK_MILLIS; // Delay in milliseconds for game updates (controls speed)
+    private final int REWIND_TICKS = 10000 / DELAY; // How far back Backspace can rewind (10 seconds)
+
+    // --- Game State Variables ---
+    private GameEngine engine; // Replaced, with the renderer, when a level pack moves to the next level
+    private GameRenderer renderer;
+    private final Random seedSource; // Supplies the engine seed for each new game
+    private final int timerDelay; // DELAY, divided by the replay speed when replaying
+    private Timer timer;
+
+    // Replay mode: games come from a recording instead of the keyboard
+    private final InputLog replay; // null when playing
+    private int replayGame; // Index of the recorded game being shown
+    private int replayInput; // Index of its next input
+
+    // Level pack mode: winning moves on to the next maze of the pack
+    private final LevelPack levels; // null without --levels
+    private final GhostBehaviour ghostBehaviour;
+    private int level; // Index of the current level in the pack
+
+    // Rewind: a snapshot before every tick, played backwards while Backspace is held
+    private final ArrayDeque<GameSnapshot> history = new ArrayDeque<>();
+    private boolean rewinding;
+
+    // Key presses wait here until the next tick, so input reaches the engine only from the loop
+    private final InputQueue inputs = new InputQueue(16);
+
+    // Instrumentation, also published over JMX; F3 shows the overlay
+    private final GameMetrics metrics;
+    private final MetricsOverlay overlay;
+
+    // Regions changed by the last tick, as x, y, width, height; only set while repaintChanges() paints
+    private int[] dirtyRegions = new int[4 * 16];
+    private int dirtyRegionCount;
+    private final Rectangle dirtyBounds = new Rectangle();
+
+    private final GameOptions options;
+    private boolean firstFrameShown;
+
+    private JButton retryButton; // Created when the first game ends
+
+
+    /**
+     * Constructor for the GamePanel.
+     * Initializes game components and starts the game.
+     * @param options Maze, ghost behaviour and the source of each game's seed.
+     */
+    public GamePanel(GameOptions options) {
+        this.options = options;
+        this.seedSource = options.getSeedSource();
+        engine = options.newEngine();
+        replay = options.getReplay();
+        levels = options.getLevels();
+        level = options.getStartLevel();
+        ghostBehaviour = options.getGhostBehaviour();
+        timerDelay = replay == null ? DELAY : Math.max(1, DELAY / options.getReplaySpeed());
+        renderer = new GameRenderer(engine);
+        metrics = new GameMetrics(engine); // Registered with JMX after the first frame
+        overlay = new MetricsOverlay(metrics);
+        this.setPreferredSize(new Dimension(renderer.getWidth(), renderer.getHeight())); // Set panel size
+        // Change background to BLUE to represent walls
+        this.setBackground(GameRenderer.WALL_COLOR);
+        this.setFocusable(true); // Make panel focusable to receive key events
+        this.addKeyListener(new MyKeyAdapter()); // Add key listener for user input
+        this.setLayout(null); // Nothing to lay out until the retry button exists
+
+        startGame();
+    }
+
+    /**
+     * Shows the retry button, creating it the first time a game ends: the button, its
+     * font and the layout are not needed for the first frame, so they stay off the startup path.
+     */
+    private void showRetryButton(String text) {
+        if (retryButton == null) {
+            // Initialize and configure the retry button
+            retryButton = new JButton();
+            retryButton.setFont(new Font("Ink Free", Font.BOLD, 30));
+            retryButton.setBackground(Color.DARK_GRAY);
+            retryButton.setForeground(Color.WHITE);
+            retryButton.setFocusable(false); // Prevents the button from stealing focus from the panel
+            retryButton.addActionListener(e -> restartGame()); // Add action listener for retry
+
+            // Use GridBagLayout for centering the button
+            this.setLayout(new GridBagLayout());
+            GridBagConstraints gbc = new GridBagConstraints();
+            gbc.gridx = 0;
+            gbc.gridy = 1; // Position the button in a new row for separation
+            gbc.anchor = GridBagConstraints.CENTER;
+            gbc.insets = new Insets(40, 0, 10, 0); // Add top padding for spacing
+            this.add(retryButton, gbc);
+        }
+        retryButton.setText(text);
+        retryButton.setVisible(true);
+        revalidate();
+    }
+
+    private void hideRetryButton() {
+        if (retryButton != null) {
+            retryButton.setVisible(false);
+        }
+    }
+
+    /**
+     * Starts the game timer.
+     */
+    public void startGame() {
+        engine.start();
+        GameEvents.GameStart event = new GameEvents.GameStart();
+        if (event.shouldCommit()) {
+            event.seed = engine.getSeed();
+            event.maze = engine.getMaze().getId();
+            event.ghosts = engine.getGhosts().size();
+            event.commit();
+        }
+        if (timer != null) {
+            timer.stop();
+        }
+        timer = new Timer(timerDelay, this);
+        metrics.timerRestarted();
+        timer.start();
+        hideRetryButton();
+        this.requestFocusInWindow(); // Ensure panel has focus for key events
+    }
+
+    /**
+     * Restarts the game by re-initializing and starting.
+     */
+    private void restartGame() {
+        metrics.beforeReset();
+        GameEvents.GameRestart event = new GameEvents.GameRestart();
+        if (event.shouldCommit()) {
+            event.tick = engine.getTick();
+            event.score = engine.getScore();
+            event.commit();
+        }
+        if (levels != null && engine.isGameWon()) {
+            loadLevel((level + 1) % levels.getLevelCount()); // After the last level, start over
+        } else if (replay != null && !replay.getGames().isEmpty()) {
+            // Retry shows the next recorded game
+            replayGame = (replayGame + 1) % replay.getGames().size();
+            replayInput = 0;
+            engine.reset(replay.getGames().get(replayGame).getSeed());
+        } else {
+            engine.reset(seedSource.nextLong()); // Reset all game variables
+        }
+        history.clear();
+        inputs.clear();
+        startGame();
+    }
+
+    /**
+     * Switches to a level of the pack: a new engine and renderer for its maze, and the
+     * window resized to fit it. The level's maze is decoded now if it is not cached.
+     */
+    private void loadLevel(int index) {
+        level = index;
+        engine = new GameEngine(levels.getLevel(level), seedSource.nextLong());
+        engine.setGhostBehaviour(ghostBehaviour);
+        renderer = new GameRenderer(engine);
+        metrics.setEngine(engine);
+        this.setPreferredSize(new Dimension(renderer.getWidth(), renderer.getHeight()));
+        Window window = SwingUtilities.getWindowAncestor(this);
+        if (window instanceof Frame) {
+            ((Frame) window).setTitle(getTitle());
+            window.pack();
+        }
+        repaint();
+    }
+
+    /**
+     * Returns the window title: the game's name, and the level when playing a level pack.
+     */
+    public String getTitle() {
+        return levels == null ? "Pac-Man" : "Pac-Man - Level " + (level + 1);
+    }
+
+    /**
+     * Finishes the recording file, if the game is being recorded.
+     */
+    public void stopRecording() {
+        try {
+            engine.stopRecording();
+        } catch (IOException e) {
+            System.err.println("Could not save the recording: " + e);
+        }
+    }
+
+    /**
+     * Overrides paintComponent to draw all game elements.
+     * @param g The Graphics object.
+     */
+    @Override
+    public void paintComponent(Graphics g) {
+        GameEvents.Paint event = new GameEvents.Paint();
+        event.begin();
+        metrics.beginPaint();
+        Rectangle clip = g.getClipBounds();
+        if (dirtyRegionCount > 0 && clip != null && dirtyBounds.contains(clip)) {
+            // Only the changed regions: the rest of the clip is already on screen
+            Shape fullClip = g.getClip();
+            for (int i = 0; i < dirtyRegionCount; i++) {
+                int at = 4 * i;
+                g.clipRect(dirtyRegions[at], dirtyRegions[at + 1], dirtyRegions[at + 2], dirtyRegions[at + 3]);
+                super.paintComponent(g);
+                renderer.draw(g);
+                g.setClip(fullClip);
+            }
+        } else {
+            super.paintComponent(g);
+            renderer.draw(g);
+        }
+        metrics.endPaint();
+        event.end();
+        if (event.shouldCommit()) {
+            event.tick = engine.getTick();
+            event.commit();
+        }
+        overlay.draw(g); // Not timed: it measures the game, not itself
+        if (!firstFrameShown) {
+            firstFrameShown = true;
+            PacManGame.firstFrameShown(options, metrics);
+        }
+    }
+
+    /**
+     * Main game loop update logic.
+     * @param e ActionEvent from the timer.
+     */
+    @Override
+    public void actionPerformed(ActionEvent e) {
+        metrics.timerFired(timerDelay * 1_000_000L);
+        if (rewinding) {
+            inputs.clear(); // Keys pressed while rewinding do not steer the resumed game
+            if (!history.isEmpty()) {
+                engine.restore(history.removeLast()); // One tick back per timer tick
+                repaint();
+            }
+            return; // Hold at the oldest snapshot until Backspace is released
+        }
+        if (engine.isRunning()) {
+            for (int input = inputs.poll(); input != GameEngine.NO_INPUT; input = inputs.poll()) {
+                engine.steer(input);
+            }
+            if (canRewind()) {
+                if (history.size() == REWIND_TICKS) {
+                    history.removeFirst();
+                }
+                history.addLast(engine.snapshot());
+            }
+            boolean replayEnded = false;
+            if (replay != null && !replay.getGames().isEmpty()) {
+                InputLog.Game game = replay.getGames().get(replayGame);
+                replayInput = game.feed(engine, replayInput);
+                replayEnded = engine.getTick() >= game.getFinalTick(); // Recording stopped mid-game
+            }
+            if (!replayEnded) {
+                GameEvents.Tick event = new GameEvents.Tick();
+                event.begin();
+                metrics.beginTick();
+                engine.step(GameEngine.NO_INPUT);
+                metrics.endTick();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.tick = engine.getTick();
+                    event.score = engine.getScore();
+                    event.commit();
+                }
+            }
+            if (!engine.isRunning() || replayEnded) {
+                timer.stop();
+                showRetryButton(levels != null && engine.isGameWon() ? "Next Level" : "Retry");
+            }
+            repaintChanges();
+        } else {
+            repaint();
+        }
+    }
+
+    /**
+     * Rewinding is off while replaying or recording: both follow a single timeline.
+     */
+    private boolean canRewind() {
+        return replay == null && !engine.isRecording();
+    }
+
+    /**
+     * Starts or stops playing the game backwards. Rewinding from the end screen
+     * takes the game back to before it ended.
+     */
+    private void setRewinding(boolean rewinding) {
+        if (rewinding == this.rewinding || !canRewind()) {
+            return;
+        }
+        this.rewinding = rewinding;
+        if (rewinding && !timer.isRunning() && !history.isEmpty()) {
+            hideRetryButton();
+            metrics.timerRestarted();
+            timer.start();
+        }
+    }
+
+    /**
+     * Repaints only the tiles the last tick changed, plus the score strip if needed, in one
+     * paint. Painting their bounding box would redraw most of the board whenever Pac-Man and
+     * a ghost are far apart, so paintComponent() clips to each region in turn instead.
+     */
+    private void repaintChanges() {
+        if (engine.isFullRepaintNeeded()) {
+            repaint();
+            return;
+        }
+        dirtyRegionCount = 0;
+        int tile = renderer.getTileSize();
+        int cols = engine.getMaze().getCols();
+        for (int i = 0; i < engine.getDirtyCellCount(); i++) {
+            int cell = engine.getDirtyCell(i);
+            // One pixel of margin: Pac-Man's arc touches the edge row of the next tile
+            addDirtyRegion((cell % cols) * tile - 1, (cell / cols) * tile - 1, tile + 2, tile + 2);
+        }
+        if (engine.isHudDirty()) {
+            addDirtyRegion(0, renderer.getHudY(), renderer.getWidth(), renderer.getHeight() - renderer.getHudY());
+        }
+        if (overlay.isVisible()) {
+            addDirtyRegion(0, 0, MetricsOverlay.WIDTH, MetricsOverlay.HEIGHT);
+        }
+        if (dirtyRegionCount > 0) {
+            paintImmediately(dirtyBounds);
+            dirtyRegionCount = 0;
+        }
+    }
+
+    private void addDirtyRegion(int x, int y, int width, int height) {
+        if (dirtyRegionCount == 0) {
+            dirtyBounds.setBounds(x, y, width, height);
+        } else {
+            dirtyBounds.add(x, y);
+            dirtyBounds.add(x + width, y + height);
+        }
+        if (4 * dirtyRegionCount == dirtyRegions.length) {
+            dirtyRegions = Arrays.copyOf(dirtyRegions, 2 * dirtyRegions.length);
+        }
+        int at = 4 * dirtyRegionCount++;
+        dirtyRegions[at] = x;
+        dirtyRegions[at + 1] = y;
+        dirtyRegions[at + 2] = width;
+        dirtyRegions[at + 3] = height;
+    }
+
+    /**
+     * Inner class to handle keyboard input.
+     */
+    public class MyKeyAdapter extends KeyAdapter {
+        @Override
+        public void keyPressed(KeyEvent e) {
+            if (e.getKeyCode() == KeyEvent.VK_F3) {
+                overlay.toggle();
+                repaint();
+                return;
+            }
+            if (replay != null) {
+                return; // The recording steers
+            }
+            switch (e.getKeyCode()) {
+                case KeyEvent.VK_BACK_SPACE:
+                    setRewinding(true);
+                    break;
+                case KeyEvent.VK_LEFT:
+                    inputs.offer(GameEngine.LEFT);
+                    break;
+                case KeyEvent.VK_RIGHT:
+                    inputs.offer(GameEngine.RIGHT);
+                    break;
+                case KeyEvent.VK_UP:
+                    inputs.offer(GameEngine.UP);
+                    break;
+                case KeyEvent.VK_DOWN:
+                    inputs.offer(GameEngine.DOWN);
+                    break;
+            }
+        }
+
+        @Override
+        public void keyReleased(KeyEvent e) {
+            if (e.getKeyCode() == KeyEvent.VK_BACK_SPACE) {
+                setRewinding(false);
+            }
+        }
+    }
+}
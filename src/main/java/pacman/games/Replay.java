@@ -0,0 +1,51 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Replays recordings headless, as fast as the engine runs, and checks that every game ends
+ * on the recorded tick with the recorded score. Games are replayed in parallel.
+ * Use it to bulk-check sessions after an engine change, or to reproduce a bug report
+ * (then watch it with --replay=FILE in the game).
+ */
+public class Replay {
+
+    /**
+     * @param args One or more recording files.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: Replay FILE...");
+            System.exit(2);
+        }
+        int mismatchedGames = 0;
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            InputLog log = InputLog.read(path);
+            Maze maze = Maze.forId(log.getMazeId());
+
+            long start = System.nanoTime();
+            long mismatches = log.getGames().parallelStream()
+                    .filter(game -> !game.replay(newEngine(maze, log.getGhostBehaviour(), game.getSeed())))
+                    .count();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long ticks = log.getGames().stream().mapToLong(InputLog.Game::getFinalTick).sum();
+
+            System.out.printf("%s: %d games on %s (%s), %d mismatched, %d ticks in %.2f s (%.0f ticks/s)%n",
+                    path, log.getGames().size(), log.getMazeId(), log.getGhostBehaviour(), mismatches,
+                    ticks, seconds, ticks / seconds);
+            mismatchedGames += mismatches;
+        }
+        if (mismatchedGames > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static GameEngine newEngine(Maze maze, GhostBehaviour ghostBehaviour, long seed) {
+        GameEngine engine = new GameEngine(maze, seed);
+        engine.setGhostBehaviour(ghostBehaviour);
+        return engine;
+    }
+}
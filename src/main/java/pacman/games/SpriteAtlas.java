@@ -0,0 +1,155 @@
+package pacman.games;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Every Pac-Man and ghost frame pre-rendered into one image, so drawing an actor is a single
+ * drawImage instead of an arc or seven ovals with colour changes in between.
+ * Rows 0 to 4 hold Pac-Man facing right, left, up and down, and standing still, with his mouth
+ * at each animation angle (0 to 45 degrees in MOUTH_STEP steps); row 5 holds a ghost of each
+ * colour, then the frightened ghost. Every shape is placed within its tile; a frame is one pixel
+ * larger than the tile only for the edge pixel Java2D fills just past an arc or oval, which the
+ * dirty-tile repaint's one-pixel pad covers.
+ * Frames are rendered at the device scale (e.g. 2 on a HiDPI screen), with the tile size in
+ * device pixels rounded once, and copied to the screen pixel for pixel. They stay sharp on
+ * scaled displays, fractional scales such as 1.5 included, at no extra cost. The image is a
+ * managed one: Java2D caches it in video memory and, unlike the maze layer, it cannot be lost.
+ */
+final class SpriteAtlas {
+
+    static final int MOUTH_STEP = 5; // PacMan's mouthSpeed: every mouth angle is a multiple of it
+    private static final int MOUTH_FRAMES = 45 / MOUTH_STEP + 1;
+    private static final int STILL_ROW = 4;
+    private static final int GHOST_ROW = 5;
+    // Start angle of the mouth for each direction row: right, left, up, down
+    private static final int[] DIRECTION_ANGLES = {0, 180, 90, 270};
+
+    private final int tileSize; // Size of a frame when drawn, in the renderer's pixels
+    private final double scale; // Device pixels per renderer pixel
+    private final int deviceTileSize; // tileSize * scale, rounded: the size every frame is rendered at
+    private final int frameSize; // Size of a frame (tile plus the edge pixel) in the atlas, in device pixels
+    private final int ghostColors;
+    private final BufferedImage image;
+
+    /**
+     * Renders every frame.
+     * @param tileSize Size of a tile in pixels.
+     * @param ghostColors Colours of the non-frightened ghosts.
+     * @param gc The configuration of the screen it is drawn to, for a compatible image and its scale.
+     */
+    SpriteAtlas(int tileSize, Color[] ghostColors, GraphicsConfiguration gc) {
+        this.tileSize = tileSize;
+        this.ghostColors = ghostColors.length;
+        scale = Math.max(1, gc.getDefaultTransform().getScaleX());
+        deviceTileSize = (int) Math.round(tileSize * scale);
+        frameSize = deviceTileSize + 1;
+        int columns = Math.max(MOUTH_FRAMES, ghostColors.length + 1);
+        image = gc.createCompatibleImage(columns * frameSize, (GHOST_ROW + 1) * frameSize, Transparency.BITMASK);
+        Graphics2D g = image.createGraphics();
+        try {
+            for (int direction = 0; direction < DIRECTION_ANGLES.length; direction++) {
+                for (int mouth = 0; mouth < MOUTH_FRAMES; mouth++) {
+                    renderPacMan(frame(g, mouth, direction), DIRECTION_ANGLES[direction] + mouth * MOUTH_STEP,
+                            mouth * MOUTH_STEP);
+                }
+            }
+            for (int mouth = 0; mouth < MOUTH_FRAMES; mouth++) {
+                // Standing still, the arc starts at 3 o'clock, so the mouth opens below it
+                renderPacMan(frame(g, mouth, STILL_ROW), 0, mouth * MOUTH_STEP);
+            }
+            for (int color = 0; color < ghostColors.length; color++) {
+                renderGhost(frame(g, color, GHOST_ROW), ghostColors[color]);
+            }
+            renderGhost(frame(g, ghostColors.length, GHOST_ROW), null);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /**
+     * Returns whether this atlas still fits the given tile size and screen.
+     */
+    boolean matches(int tileSize, GraphicsConfiguration gc) {
+        return this.tileSize == tileSize && scale == Math.max(1, gc.getDefaultTransform().getScaleX());
+    }
+
+    // Sets g up to draw one frame in device pixels, with (0, 0) at its top-left corner
+    private Graphics2D frame(Graphics2D g, int column, int row) {
+        g.setTransform(AffineTransform.getTranslateInstance(column * frameSize, row * frameSize));
+        return g;
+    }
+
+    // The angle for the arc drawing goes counter-clockwise from 3 o'clock;
+    // the sweep leaves out mouthAngle * 2 degrees for the open mouth
+    private void renderPacMan(Graphics2D g, int startAngle, int mouthAngle) {
+        g.setColor(Color.YELLOW);
+        g.fillArc(0, 0, deviceTileSize, deviceTileSize, startAngle, 360 - mouthAngle * 2);
+    }
+
+    /**
+     * @param color Body colour, or null for the frightened ghost.
+     */
+    private void renderGhost(Graphics2D g, Color color) {
+        int size = deviceTileSize;
+        g.setColor(color != null ? color : Color.BLACK); // Frightened ghosts are black
+        g.fillOval(0, 0, size, size);
+        // Eyes: white with black pupils, offsets scaled with the tile so they stay inside it
+        g.setColor(Color.WHITE);
+        g.fillOval(size / 4, size / 4, size / 4, size / 4); // Left eye
+        g.fillOval(size * 2 / 4 + size / 6, size / 4, size / 4, size / 4); // Right eye
+        g.setColor(Color.BLACK);
+        g.fillOval(size / 4 + size / 10, size / 4 + size / 10, size / 8, size / 8); // Left pupil
+        g.fillOval(size * 2 / 4 + size * 4 / 15, size / 4 + size / 10, size / 8, size / 8); // Right pupil
+    }
+
+    /**
+     * Draws Pac-Man with his top-left corner at (x, y).
+     * @param pacMan Supplies the facing (dx, dy) and the mouth angle.
+     */
+    void drawPacMan(Graphics g, int x, int y, PacMan pacMan) {
+        int direction = STILL_ROW;
+        if (pacMan.dx == 1) {
+            direction = 0;
+        } else if (pacMan.dx == -1) {
+            direction = 1;
+        } else if (pacMan.dy == -1) {
+            direction = 2;
+        } else if (pacMan.dy == 1) {
+            direction = 3;
+        }
+        int mouth = Math.max(0, Math.min(MOUTH_FRAMES - 1, (int) pacMan.mouthAngle / MOUTH_STEP));
+        drawFrame(g, x, y, mouth, direction);
+    }
+
+    /**
+     * Draws a ghost with its top-left corner at (x, y).
+     * @param ghost Index of the ghost, which picks its colour.
+     */
+    void drawGhost(Graphics g, int x, int y, int ghost, boolean frightened) {
+        drawFrame(g, x, y, frightened ? ghostColors : ghost % ghostColors, GHOST_ROW);
+    }
+
+    private void drawFrame(Graphics g, int x, int y, int column, int row) {
+        int sx = column * frameSize;
+        int sy = row * frameSize;
+        if (scale != 1) {
+            Graphics2D g2 = (Graphics2D) g;
+            AffineTransform transform = g2.getTransform();
+            if (transform.getScaleX() == scale && transform.getScaleY() == scale
+                    && transform.getShearX() == 0 && transform.getShearY() == 0) {
+                // Copy the frame to the device pixels the tile's corner lands on, unscaled
+                int deviceX = (int) Math.round(x * scale + transform.getTranslateX());
+                int deviceY = (int) Math.round(y * scale + transform.getTranslateY());
+                g2.setTransform(new AffineTransform());
+                g2.drawImage(image, deviceX, deviceY, deviceX + frameSize, deviceY + frameSize,
+                        sx, sy, sx + frameSize, sy + frameSize, null);
+                g2.setTransform(transform);
+                return;
+            }
+            // Not the screen the atlas was rendered for (e.g. a print job): scale the frame to the tile
+        }
+        g.drawImage(image, x, y, x + tileSize + 1, y + tileSize + 1, sx, sy, sx + frameSize, sy + frameSize, null);
+    }
+}
@@ -0,0 +1,162 @@
+package pacman.games;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A client's copy of a remote game, kept up to date from StateEncoder's frames.
+ * Holds what a thin client draws: the maze, remaining pellets, Pac-Man, the ghosts,
+ * score, lives and whether the game is still on.
+ */
+final class StateDecoder {
+
+    private Maze maze; // Set by the first full frame
+    private long[] pellets;
+    private int pelletsRemaining;
+    private int[] ghosts; // Cell << 1 | frightened, as encoded
+    private long tick;
+    private int score;
+    private int lives;
+    private byte status = StateEncoder.RUNNING;
+    private int pacManCell;
+    private long fullFrames;
+    private long deltaFrames;
+
+    /**
+     * Applies one frame body (without its length prefix).
+     * @throws IOException If the frame is malformed or a delta arrives before the first full frame.
+     */
+    void apply(ByteBuffer frame) throws IOException {
+        try {
+            byte type = frame.get();
+            if (type == StateEncoder.FULL) {
+                applyFull(frame);
+                fullFrames++;
+            } else if (type == StateEncoder.DELTA && maze != null) {
+                applyDelta(frame);
+                deltaFrames++;
+            } else {
+                throw new IOException("Unexpected frame type " + type);
+            }
+            if (frame.hasRemaining()) {
+                throw new IOException("Frame has " + frame.remaining() + " trailing bytes");
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IOException("Corrupt frame", e);
+        }
+    }
+
+    private void applyFull(ByteBuffer in) {
+        getHeader(in);
+        byte[] id = new byte[in.getShort()];
+        in.get(id);
+        String mazeId = new String(id, StandardCharsets.UTF_8);
+        if (maze == null || !maze.getId().equals(mazeId)) {
+            maze = Maze.forId(mazeId);
+            pellets = maze.newPelletBits();
+        }
+        for (int i = 0; i < pellets.length; i++) {
+            pellets[i] = in.getLong();
+        }
+        pelletsRemaining = Maze.countBits(pellets);
+        int count = (int) getVarint(in);
+        if (ghosts == null || ghosts.length != count) {
+            ghosts = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            ghosts[i] = (int) getVarint(in);
+        }
+    }
+
+    private void applyDelta(ByteBuffer in) {
+        getHeader(in);
+        for (int eaten = (int) getVarint(in); eaten > 0; eaten--) {
+            int cell = (int) getVarint(in);
+            if (Maze.isSet(pellets, cell)) {
+                Maze.clear(pellets, cell);
+                pelletsRemaining--;
+            }
+        }
+        for (int moved = (int) getVarint(in); moved > 0; moved--) {
+            int index = (int) getVarint(in);
+            ghosts[index] = (int) getVarint(in);
+        }
+    }
+
+    private void getHeader(ByteBuffer in) {
+        tick = getVarint(in);
+        score = (int) getVarint(in);
+        lives = in.get();
+        status = in.get();
+        pacManCell = (int) getVarint(in);
+    }
+
+    private static long getVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    Maze getMaze() {
+        return maze;
+    }
+
+    boolean hasPellet(int cell) {
+        return Maze.isSet(pellets, cell);
+    }
+
+    int getPelletsRemaining() {
+        return pelletsRemaining;
+    }
+
+    int getGhostCount() {
+        return ghosts == null ? 0 : ghosts.length;
+    }
+
+    int getGhostCell(int ghost) {
+        return ghosts[ghost] >>> 1;
+    }
+
+    boolean isGhostFrightened(int ghost) {
+        return (ghosts[ghost] & 1) != 0;
+    }
+
+    long getTick() {
+        return tick;
+    }
+
+    int getScore() {
+        return score;
+    }
+
+    int getLives() {
+        return lives;
+    }
+
+    int getPacManCell() {
+        return pacManCell;
+    }
+
+    boolean isRunning() {
+        return status == StateEncoder.RUNNING;
+    }
+
+    boolean isGameWon() {
+        return status == StateEncoder.GAME_WON;
+    }
+
+    long getFullFrames() {
+        return fullFrames;
+    }
+
+    long getDeltaFrames() {
+        return deltaFrames;
+    }
+}
@@ -0,0 +1,176 @@
+package pacman.games;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Encodes a game's state for a remote client as a stream of frames: one full frame to
+ * start, then per tick only what changed since the previous frame. StateDecoder reads it.
+ * <pre>
+ * frame   := length:int (FULL full | DELTA delta)
+ * full    := header mazeId:utf pellets:long[bitsetLength(cells)] ghostCount:varint ghost*
+ * delta   := header eatenCount:varint cell:varint* movedCount:varint (index:varint ghost)*
+ * header  := tick:varint score:varint lives:byte status:byte pacMan:varint
+ * ghost   := varint(cell &lt;&lt; 1 | frightened)
+ * status  := RUNNING | GAME_OVER | GAME_WON
+ * utf     := length:short bytes (UTF-8)
+ * </pre>
+ * Cells are row * cols + col; the client rebuilds the maze from its id (Maze.forId).
+ * Varints are unsigned LEB128. A tick on the classic maze typically takes about 20 bytes with its
+ * length, against 81 for a full frame and 441 for the board at a byte per tile.
+ * Eaten pellets are found among the engine's dirty cells, so encoding costs about as much as
+ * the tick's changes rather than the board. One encoder per client; not thread-safe.
+ */
+final class StateEncoder {
+
+    static final byte FULL = 1;
+    static final byte DELTA = 2;
+    static final byte RUNNING = 0;
+    static final byte GAME_OVER = 1;
+    static final byte GAME_WON = 2;
+
+    private static final int MAX_EATEN_PER_TICK = 2; // Pac-Man eats at most one pellet a tick; one spare
+
+    private final Maze maze;
+    private final byte[] mazeId;
+    private final long[] sentPellets; // Pellets as the client last saw them
+    private final int[] sentGhosts; // Each ghost's encoded cell and frightened bit as last sent
+    private boolean fullNeeded = true;
+
+    StateEncoder(Maze maze, int ghostCount) {
+        this.maze = maze;
+        mazeId = maze.getId().getBytes(StandardCharsets.UTF_8);
+        sentPellets = maze.newPelletBits();
+        sentGhosts = new int[ghostCount];
+    }
+
+    /**
+     * Makes the next frame a full one, e.g. after the engine was reset for a new game.
+     */
+    void requestFull() {
+        fullNeeded = true;
+    }
+
+    /**
+     * Returns the size of the largest frame, full or delta, for sizing output buffers.
+     */
+    int maxFrameSize() {
+        int header = 4 + 1 + 10 + 5 + 1 + 1 + 5;
+        int full = header + 2 + mazeId.length + 8 * sentPellets.length + 5 + 5 * sentGhosts.length;
+        int delta = header + 5 + 5 * MAX_EATEN_PER_TICK + 5 + 10 * sentGhosts.length;
+        return Math.max(full, delta);
+    }
+
+    /**
+     * Appends the frame for the engine's current state: full if requested or if the engine
+     * lost track of its changes, otherwise the changes since the previous frame.
+     * @param out Must have maxFrameSize() bytes remaining.
+     */
+    void encode(GameEngine engine, ByteBuffer out) {
+        int start = out.position();
+        out.putInt(0); // Length, filled in below
+        if (fullNeeded || engine.isFullRepaintNeeded()) {
+            encodeFull(engine, out);
+            fullNeeded = false;
+        } else {
+            encodeDelta(engine, out);
+        }
+        out.putInt(start, out.position() - start - 4);
+    }
+
+    private void encodeFull(GameEngine engine, ByteBuffer out) {
+        out.put(FULL);
+        putHeader(engine, out);
+        out.putShort((short) mazeId.length);
+        out.put(mazeId);
+        Arrays.fill(sentPellets, 0);
+        for (int cell = engine.nextPellet(0); cell >= 0; cell = engine.nextPellet(cell + 1)) {
+            Maze.set(sentPellets, cell);
+        }
+        for (long word : sentPellets) {
+            out.putLong(word);
+        }
+        GhostStore ghosts = engine.getGhosts();
+        putVarint(out, ghosts.size());
+        for (int i = 0; i < ghosts.size(); i++) {
+            sentGhosts[i] = ghostCode(engine, i);
+            putVarint(out, sentGhosts[i]);
+        }
+    }
+
+    private void encodeDelta(GameEngine engine, ByteBuffer out) {
+        out.put(DELTA);
+        putHeader(engine, out);
+
+        // Eaten pellets: dirty cells the client still shows a pellet on
+        int countAt = out.position();
+        out.put((byte) 0); // Count, rewritten below; reserve more if it outgrows one byte
+        int eaten = 0;
+        for (int i = 0; i < engine.getDirtyCellCount(); i++) {
+            int cell = engine.getDirtyCell(i);
+            if (Maze.isSet(sentPellets, cell) && engine.getTile(cell / maze.getCols(), cell % maze.getCols()) < 2) {
+                Maze.clear(sentPellets, cell);
+                putVarint(out, cell);
+                eaten++;
+            }
+        }
+        patchCount(out, countAt, eaten);
+
+        countAt = out.position();
+        out.put((byte) 0);
+        int moved = 0;
+        GhostStore ghosts = engine.getGhosts();
+        for (int i = 0; i < ghosts.size(); i++) {
+            int code = ghostCode(engine, i);
+            if (code != sentGhosts[i]) {
+                sentGhosts[i] = code;
+                putVarint(out, i);
+                putVarint(out, code);
+                moved++;
+            }
+        }
+        patchCount(out, countAt, moved);
+    }
+
+    private void putHeader(GameEngine engine, ByteBuffer out) {
+        putVarint(out, engine.getTick());
+        putVarint(out, engine.getScore());
+        PacMan pacMan = engine.getPacMan();
+        out.put((byte) pacMan.lives);
+        out.put(engine.isGameWon() ? GAME_WON : engine.isGameOver() ? GAME_OVER : RUNNING);
+        putVarint(out, pacMan.y * maze.getCols() + pacMan.x);
+    }
+
+    private int ghostCode(GameEngine engine, int i) {
+        GhostStore ghosts = engine.getGhosts();
+        return (ghosts.y[i] * maze.getCols() + ghosts.x[i]) << 1 | (ghosts.isFrightened(i) ? 1 : 0);
+    }
+
+    // Counts usually fit the one byte reserved for them; a larger one shifts the items up
+    private static void patchCount(ByteBuffer out, int at, int count) {
+        if (count < 0x80) {
+            out.put(at, (byte) count);
+            return;
+        }
+        int size = 0;
+        for (int value = count; value != 0; value >>>= 7) {
+            size++;
+        }
+        int end = out.position();
+        for (int i = end - 1; i > at; i--) {
+            out.put(i + size - 1, out.get(i));
+        }
+        out.position(at);
+        putVarint(out, count);
+        out.position(end + size - 1);
+    }
+
+    private static void putVarint(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+}
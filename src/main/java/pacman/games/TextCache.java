@@ -0,0 +1,124 @@
+package pacman.games;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Holds everything text drawing needs so frames do not rebuild it.
+ * Fonts are created once, font metrics are looked up once, the score/lives strip is
+ * pre-rendered into an image that is only redrawn when the score or lives change, and
+ * the "Final Score" line and its width are kept until the score changes.
+ */
+class TextCache {
+
+    // --- Fonts ---
+    static final Font HUD_FONT = new Font("Monospaced", Font.BOLD, 20);
+    // End screen fonts are only created when the first game ends, off the startup path
+    private Font titleFont; // "Game Over" / "You Won!"
+    private Font finalScoreFont;
+
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int hudHeight; // Height of the score/lives strip below the board
+
+    // Score/lives strip, valid for hudScore and hudLives
+    private BufferedImage hudImage;
+    private int hudScore = -1;
+    private int hudLives = -1;
+
+    // End screen text
+    private FontMetrics titleMetrics;
+    private FontMetrics finalScoreMetrics;
+    private String title; // Last title drawn and its width
+    private int titleWidth;
+    private String finalScoreText;
+    private int finalScoreWidth;
+    private int finalScoreValue = -1; // Score finalScoreText was built for
+
+    /**
+     * @param screenWidth Width of the game screen.
+     * @param screenHeight Height of the game screen, including the strip.
+     * @param hudHeight Height of the score/lives strip at the bottom of the screen.
+     */
+    TextCache(int screenWidth, int screenHeight, int hudHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.hudHeight = hudHeight;
+    }
+
+    /**
+     * Draws the score/lives strip at the given y, re-rendering it only if score or lives changed.
+     * @param g The Graphics object.
+     * @param y Top of the strip.
+     */
+    void drawHud(Graphics g, int y, int score, int lives) {
+        if (hudImage == null) {
+            hudImage = ((Graphics2D) g).getDeviceConfiguration()
+                    .createCompatibleImage(screenWidth, hudHeight, Transparency.TRANSLUCENT);
+        }
+        if (score != hudScore || lives != hudLives) {
+            renderHud(score, lives);
+        }
+        g.drawImage(hudImage, 0, y, null);
+    }
+
+    private void renderHud(int score, int lives) {
+        Graphics2D g = hudImage.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear); // Start from a transparent strip
+            g.fillRect(0, 0, screenWidth, hudHeight);
+            g.setComposite(AlphaComposite.SrcOver);
+            g.setColor(Color.WHITE);
+            g.setFont(HUD_FONT);
+            // Baseline 30 pixels above the bottom of the screen, as before
+            int baseline = hudHeight - 30;
+            g.drawString("Score: " + score, 10, baseline);
+            g.drawString("Lives: " + lives, screenWidth - 100, baseline);
+        } finally {
+            g.dispose();
+        }
+        hudScore = score;
+        hudLives = lives;
+    }
+
+    /**
+     * Draws an end screen: a centered title with the final score above it.
+     * @param g The Graphics object.
+     * @param title "Game Over" or "You Won!".
+     * @param titleColor Color of the title.
+     * @param score Final score.
+     */
+    void drawEndScreen(Graphics g, String title, Color titleColor, int score) {
+        if (titleMetrics == null) {
+            titleFont = new Font("Ink Free", Font.BOLD, 75);
+            finalScoreFont = new Font("Ink Free", Font.BOLD, 40);
+            titleMetrics = g.getFontMetrics(titleFont);
+            finalScoreMetrics = g.getFontMetrics(finalScoreFont);
+        }
+        if (!title.equals(this.title)) {
+            titleWidth = titleMetrics.stringWidth(title);
+            this.title = title;
+        }
+        if (score != finalScoreValue) {
+            finalScoreText = "Final Score: " + score;
+            finalScoreWidth = finalScoreMetrics.stringWidth(finalScoreText);
+            finalScoreValue = score;
+        }
+
+        g.setColor(titleColor);
+        g.setFont(titleFont);
+        // Position the title
+        int textX = (screenWidth - titleWidth) / 2;
+        int textY = screenHeight / 2 - 20 - (titleMetrics.getHeight() / 2); // Center vertically, adjusted for button
+
+        g.drawString(title, textX, textY);
+
+        g.setColor(Color.WHITE);
+        g.setFont(finalScoreFont);
+        // Position score text
+        textX = (screenWidth - finalScoreWidth) / 2;
+        textY = textY - 50; // Above the title
+
+        g.drawString(finalScoreText, textX, textY);
+    }
+}
@@ -0,0 +1,188 @@
+package pacman.games;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Gym-style environment over a batch of K independent games, for training agents.
+ * One step(actions) call advances every game by a tick and writes the results into buffers
+ * allocated once: observations into a direct ByteBuffer (one byte per maze cell per game,
+ * readable from native code without copying), rewards into a float[] and episode ends into
+ * a boolean[]. Only the cells a tick changed are rewritten, so a step costs about as much
+ * as the engine ticks themselves and allocates nothing.
+ * Finished games reset themselves at the end of the step that finished them: that step
+ * reports done with the final reward, and the observation is already the new game's first.
+ * Not thread-safe; run one environment per thread to use more cores.
+ */
+public class VectorEnvironment {
+
+    // Observation codes, one byte per cell. Actors cover the tile they stand on.
+    public static final byte EMPTY = 0;
+    public static final byte WALL = 1;
+    public static final byte PELLET = 2;
+    public static final byte POWER_PELLET = 3;
+    public static final byte FRIGHTENED_GHOST = 4;
+    public static final byte GHOST = 5; // Wins over a frightened ghost on the same tile
+    public static final byte PAC_MAN = 6;
+
+    public static final float LIFE_LOST_REWARD = -500; // Added to the score change when a life is lost
+
+    private final GameEngine[] games;
+    private final int cells; // Cells per game, and so bytes per observation
+    private final int maxTicks; // Episodes still running at this tick end as done
+    private final ByteBuffer observations;
+    private final float[] rewards;
+    private final boolean[] dones;
+    private long baseSeed;
+    private long nextEpisode; // Index of the next game to start, for deriving its seed
+
+    /**
+     * @param batchSize Number of games K stepped together.
+     * @param maze Maze every game is played on; its distance tables are shared by all games.
+     * @param ghostBehaviour Ghost AI of every game.
+     * @param maxTicks Episode length limit.
+     */
+    public VectorEnvironment(int batchSize, Maze maze, GhostBehaviour ghostBehaviour, int maxTicks) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.maxTicks = maxTicks;
+        cells = maze.getRows() * maze.getCols();
+        games = new GameEngine[batchSize];
+        for (int k = 0; k < batchSize; k++) {
+            games[k] = new GameEngine(maze, 0);
+            games[k].setGhostBehaviour(ghostBehaviour);
+        }
+        observations = ByteBuffer.allocateDirect(batchSize * cells);
+        rewards = new float[batchSize];
+        dones = new boolean[batchSize];
+    }
+
+    /**
+     * Starts a fresh game in every slot. Game k and every later episode get seeds derived
+     * from the given one, so a run is reproducible from its seed and actions.
+     * @param seed Seed the per-game seeds are derived from.
+     * @return The observation buffer, holding each game's first observation.
+     */
+    public ByteBuffer reset(long seed) {
+        baseSeed = seed;
+        nextEpisode = 0;
+        for (int k = 0; k < games.length; k++) {
+            startEpisode(k);
+            rewards[k] = 0;
+            dones[k] = false;
+        }
+        return observations;
+    }
+
+    /**
+     * Advances every game by one tick.
+     * @param actions One of GameEngine.UP, DOWN, LEFT, RIGHT or NO_INPUT per game.
+     * @return The observation buffer; rewards and done flags are in getRewards() and getDones().
+     */
+    public ByteBuffer step(int[] actions) {
+        if (actions.length != games.length) {
+            throw new IllegalArgumentException("Expected " + games.length + " actions, got " + actions.length);
+        }
+        for (int k = 0; k < games.length; k++) {
+            GameEngine game = games[k];
+            int scoreBefore = game.getScore();
+            int livesLostBefore = game.getLivesLost();
+            game.step(actions[k]);
+            rewards[k] = game.getScore() - scoreBefore + LIFE_LOST_REWARD * (game.getLivesLost() - livesLostBefore);
+            dones[k] = !game.isRunning() || game.getTick() >= maxTicks;
+            if (dones[k]) {
+                startEpisode(k);
+            } else {
+                writeChanges(k);
+            }
+        }
+        return observations;
+    }
+
+    private void startEpisode(int k) {
+        games[k].reset(BatchSimulator.gameSeed(baseSeed, nextEpisode++));
+        games[k].start();
+        writeAll(k);
+    }
+
+    /**
+     * Rewrites game k's observation after a step, visiting only the cells it changed.
+     */
+    private void writeChanges(int k) {
+        GameEngine game = games[k];
+        if (game.isFullRepaintNeeded()) {
+            writeAll(k);
+            return;
+        }
+        int offset = k * cells;
+        int cols = game.getMaze().getCols();
+        for (int i = 0; i < game.getDirtyCellCount(); i++) {
+            int cell = game.getDirtyCell(i);
+            observations.put(offset + cell, (byte) game.getTile(cell / cols, cell % cols));
+        }
+        writeActors(game, offset);
+    }
+
+    private void writeAll(int k) {
+        GameEngine game = games[k];
+        int offset = k * cells;
+        int cols = game.getMaze().getCols();
+        for (int cell = 0; cell < cells; cell++) {
+            observations.put(offset + cell, (byte) game.getTile(cell / cols, cell % cols));
+        }
+        writeActors(game, offset);
+    }
+
+    // Every actor's tile is among the dirty cells, so actors are simply drawn over the tiles again
+    private void writeActors(GameEngine game, int offset) {
+        GhostStore ghosts = game.getGhosts();
+        int cols = game.getMaze().getCols();
+        for (int i = 0; i < ghosts.size(); i++) {
+            int index = offset + ghosts.y[i] * cols + ghosts.x[i];
+            byte code = ghosts.isFrightened(i) ? FRIGHTENED_GHOST : GHOST;
+            if (code > observations.get(index)) {
+                observations.put(index, code);
+            }
+        }
+        PacMan pacMan = game.getPacMan();
+        observations.put(offset + pacMan.y * cols + pacMan.x, PAC_MAN);
+    }
+
+    /**
+     * Returns the observations: game k's cells at bytes k * getCellCount() onwards, row by row.
+     */
+    public ByteBuffer getObservations() {
+        return observations;
+    }
+
+    /**
+     * Returns each game's reward for the last step: the score change, plus LIFE_LOST_REWARD
+     * per life lost.
+     */
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Returns whether each game's episode ended in the last step (won, lost or out of ticks).
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    public int getBatchSize() {
+        return games.length;
+    }
+
+    public int getCellCount() {
+        return cells;
+    }
+
+    /**
+     * Returns game k, for reading its score or state; stepping it directly desynchronises
+     * its observation.
+     */
+    public GameEngine getGame(int k) {
+        return games[k];
+    }
+}
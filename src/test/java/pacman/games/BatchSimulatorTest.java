@@ -0,0 +1,39 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Batches of headless games: results are reproducible and independent of the thread count.
+ */
+class BatchSimulatorTest {
+
+    @Test
+    void resultDoesNotDependOnTheThreadCount() {
+        BatchSimulator simulator = new BatchSimulator(3_000, BatchSimulator::randomTurns);
+        String single = simulator.run(24, 11, 1).toString();
+        assertEquals(single, simulator.run(24, 11, 4).toString());
+        assertEquals(single, simulator.run(24, 11, 3).toString());
+    }
+
+    @Test
+    void everyGameEndsOneWay() {
+        BatchSimulator simulator = new BatchSimulator(500, BatchSimulator::randomTurns);
+        var result = simulator.run(16, 3, 2);
+        assertEquals(16, result.getGames());
+        assertEquals(16, result.getWins() + result.getLosses() + result.getTimeouts());
+        assertTrue(result.getTotalTicks() <= 16 * 500L);
+    }
+
+    @Test
+    void aGameIsDeterminedByItsSeed() {
+        BatchSimulator simulator = new BatchSimulator(10_000, BatchSimulator::randomTurns);
+        GameEngine first = simulator.play(99);
+        GameEngine second = simulator.play(99);
+        assertEquals(first.getTick(), second.getTick());
+        assertEquals(first.getScore(), second.getScore());
+        assertEquals(first.getPelletsRemaining(), second.getPelletsRemaining());
+    }
+}
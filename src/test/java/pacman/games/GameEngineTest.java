@@ -0,0 +1,276 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The game rules, played headless through the engine's public API.
+ */
+class GameEngineTest {
+
+    @Test
+    void newGameIsReadyButStopped() {
+        GameEngine engine = new GameEngine(1);
+        assertFalse(engine.isRunning());
+        assertEquals(0, engine.getScore());
+        assertEquals(3, engine.getPacMan().lives);
+        assertEquals(2, engine.getGhosts().size());
+        int pellets = 0;
+        for (int row = 0; row < engine.getMaze().getRows(); row++) {
+            for (int col = 0; col < engine.getMaze().getCols(); col++) {
+                if (engine.getTile(row, col) >= 2) {
+                    pellets++;
+                }
+            }
+        }
+        assertEquals(pellets, engine.getPelletsRemaining());
+    }
+
+    @Test
+    void stepDoesNothingUntilStarted() {
+        GameEngine engine = new GameEngine(1);
+        int x = engine.getPacMan().x;
+        engine.step(GameEngine.LEFT);
+        engine.step(GameEngine.NO_INPUT);
+        assertEquals(x, engine.getPacMan().x);
+        assertEquals(0, engine.getScore());
+    }
+
+    @Test
+    void eatingAPelletScoresTen() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        int x = engine.getPacMan().x;
+        int y = engine.getPacMan().y;
+        int pellets = engine.getPelletsRemaining();
+        assertEquals(2, engine.getTile(y, x + 1));
+        engine.step(GameEngine.NO_INPUT); // Pac-Man starts facing right
+        assertEquals(x + 1, engine.getPacMan().x);
+        assertEquals(10, engine.getScore());
+        assertEquals(pellets - 1, engine.getPelletsRemaining());
+        assertEquals(0, engine.getTile(y, x + 1));
+    }
+
+    @Test
+    void steeringIntoAWallKeepsTheDirection() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        assertEquals(1, engine.getTile(engine.getPacMan().y - 1, engine.getPacMan().x));
+        engine.steer(GameEngine.UP);
+        assertEquals(1, engine.getPacMan().dx);
+        assertEquals(0, engine.getPacMan().dy);
+        engine.steer(GameEngine.LEFT);
+        assertEquals(-1, engine.getPacMan().dx);
+    }
+
+    @Test
+    void gamePlaysToItsEndHeadless() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        Random random = new Random(1);
+        for (int tick = 0; tick < 1_000_000 && engine.isRunning(); tick++) {
+            engine.step(random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT);
+        }
+        assertFalse(engine.isRunning());
+        assertNotEquals(engine.isGameOver(), engine.isGameWon());
+        if (engine.isGameOver()) {
+            assertEquals(0, engine.getPacMan().lives);
+        } else {
+            assertEquals(0, engine.getPelletsRemaining());
+        }
+
+        // An ended game ignores input until it is reset
+        int x = engine.getPacMan().x;
+        int score = engine.getScore();
+        engine.step(GameEngine.LEFT);
+        assertEquals(x, engine.getPacMan().x);
+        assertEquals(score, engine.getScore());
+        engine.reset();
+        assertFalse(engine.isGameOver() || engine.isGameWon());
+        assertEquals(3, engine.getPacMan().lives);
+        assertTrue(engine.getPelletsRemaining() > 0);
+    }
+
+    @Test
+    void turnBlockedByAWallIsTakenAtTheNextOpening() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        int x = engine.getPacMan().x;
+        int y = engine.getPacMan().y;
+        assertEquals(1, engine.getTile(y - 1, x));
+        assertEquals(2, engine.getTile(y - 1, x + 1));
+        engine.steer(GameEngine.UP); // Too early: the opening is one tile to the right
+        engine.step(GameEngine.NO_INPUT);
+        assertEquals(x + 1, engine.getPacMan().x);
+        assertEquals(y, engine.getPacMan().y);
+        engine.step(GameEngine.NO_INPUT);
+        assertEquals(x + 1, engine.getPacMan().x);
+        assertEquals(y - 1, engine.getPacMan().y);
+    }
+
+    @Test
+    void newerInputReplacesABufferedTurn() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        int x = engine.getPacMan().x;
+        int y = engine.getPacMan().y;
+        engine.steer(GameEngine.UP);
+        engine.steer(GameEngine.RIGHT); // Open, so it is taken and the buffered UP is dropped
+        engine.step(GameEngine.NO_INPUT);
+        engine.step(GameEngine.NO_INPUT);
+        assertEquals(x + 2, engine.getPacMan().x);
+        assertEquals(y, engine.getPacMan().y);
+    }
+
+    @Test
+    void referenceGameIsUnchanged() {
+        // Seed 42 with seeded random steering; rule changes that alter seeded games must update this
+        GameEngine engine = new GameEngine(42);
+        engine.start();
+        Random random = new Random(1);
+        while (engine.isRunning()) {
+            engine.step(random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT);
+        }
+        assertEquals(2358, engine.getTick());
+        assertEquals(1910, engine.getScore());
+        assertTrue(engine.isGameOver());
+    }
+
+    @Test
+    void sameSeedAndInputsPlayTheSameGame() {
+        GameEngine first = new GameEngine(7);
+        GameEngine second = new GameEngine(7);
+        first.start();
+        second.start();
+        Random random = new Random(3);
+        while (first.isRunning()) {
+            int input = random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT;
+            first.step(input);
+            second.step(input);
+            assertNull(difference(first, second), "Tick " + first.getTick());
+        }
+        assertFalse(second.isRunning());
+    }
+
+    @Test
+    void resetReplaysTheGameOfItsSeed() {
+        GameEngine engine = new GameEngine(5);
+        engine.start();
+        for (int i = 0; i < 200 && engine.isRunning(); i++) {
+            engine.step(GameEngine.NO_INPUT);
+        }
+        String before = positions(engine);
+        engine.reset(5);
+        engine.start();
+        for (int i = 0; i < 200 && engine.isRunning(); i++) {
+            engine.step(GameEngine.NO_INPUT);
+        }
+        assertEquals(before, positions(engine));
+        assertEquals(5, engine.getSeed());
+    }
+
+    @Test
+    void seedsChangeTheGhostsPaths() {
+        String[] paths = new String[4];
+        for (int seed = 0; seed < paths.length; seed++) {
+            GameEngine engine = new GameEngine(seed);
+            engine.start();
+            StringBuilder path = new StringBuilder();
+            for (int i = 0; i < 20; i++) {
+                engine.step(GameEngine.NO_INPUT);
+                path.append(positions(engine));
+            }
+            paths[seed] = path.toString();
+        }
+        for (int i = 1; i < paths.length; i++) {
+            assertNotEquals(paths[0], paths[i], "Seed " + i);
+        }
+    }
+
+    @Test
+    void frightenedTimeIsCountedInTicks() {
+        // Head for a power pellet; on some seeds the ghosts get Pac-Man first
+        GameEngine engine = new GameEngine(0);
+        for (long seed = 0; seed < 20 && !anyGhostFrightened(engine); seed++) {
+            engine.reset(seed);
+            engine.start();
+            while (engine.isRunning() && !anyGhostFrightened(engine)) {
+                engine.step(towardsPowerPellet(engine));
+            }
+        }
+        assertTrue(anyGhostFrightened(engine), "No power pellet reached");
+        long eatenAt = engine.getTick();
+        for (int i = 0; i < engine.getGhosts().size(); i++) {
+            assertEquals(eatenAt + GameEngine.POWER_PELLET_FRIGHTEN_TICKS, engine.getGhosts().frightenedUntilTick[i]);
+        }
+        // However fast the ticks run, the ghosts calm down exactly when the window ends
+        while (engine.isRunning() && engine.getTick() <= eatenAt + GameEngine.POWER_PELLET_FRIGHTEN_TICKS) {
+            engine.step(GameEngine.NO_INPUT);
+        }
+        assertTrue(engine.isRunning());
+        assertFalse(anyGhostFrightened(engine));
+    }
+
+    private static boolean anyGhostFrightened(GameEngine engine) {
+        for (int i = 0; i < engine.getGhosts().size(); i++) {
+            if (engine.getGhosts().isFrightened(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First step of a shortest path from Pac-Man to the nearest power pellet, or NO_INPUT
+    private static int towardsPowerPellet(GameEngine engine) {
+        int cols = engine.getMaze().getCols();
+        int start = engine.getPacMan().y * cols + engine.getPacMan().x;
+        int[] firstMove = new int[engine.getMaze().getCellCount()];
+        Arrays.fill(firstMove, -2);
+        firstMove[start] = GameEngine.NO_INPUT;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            if (engine.getTile(cell / cols, cell % cols) == 3) {
+                return firstMove[cell];
+            }
+            int[] dx = {0, 0, -1, 1};
+            int[] dy = {-1, 1, 0, 0};
+            for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                int x = cell % cols + dx[d];
+                int y = cell / cols + dy[d];
+                if (engine.isValidMove(x, y) && firstMove[y * cols + x] == -2) {
+                    firstMove[y * cols + x] = cell == start ? d : firstMove[cell];
+                    queue.add(y * cols + x);
+                }
+            }
+        }
+        return GameEngine.NO_INPUT;
+    }
+
+    private static String positions(GameEngine engine) {
+        StringBuilder s = new StringBuilder();
+        s.append(engine.getPacMan().x).append(',').append(engine.getPacMan().y);
+        for (int i = 0; i < engine.getGhosts().size(); i++) {
+            s.append(' ').append(engine.getGhosts().x[i]).append(',').append(engine.getGhosts().y[i]);
+        }
+        return s.toString();
+    }
+
+    // Null if both engines show the same game, else what differs
+    private static String difference(GameEngine a, GameEngine b) {
+        if (a.getTick() != b.getTick() || a.getScore() != b.getScore() || a.isRunning() != b.isRunning()) {
+            return "tick, score or status";
+        }
+        String positions = positions(a);
+        return positions.equals(positions(b)) ? null : positions + " vs " + positions(b);
+    }
+}
@@ -0,0 +1,65 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * The engine's JFR events, read back from a real recording.
+ */
+class GameEventsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void everyGameEndsWithOneGameEndEvent() throws IOException {
+        List<String> expected = new ArrayList<>();
+        Path file = dir.resolve("games.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("pacman.games.GameEnd");
+            recording.enable("pacman.games.PowerPellet");
+            recording.start();
+            GameEngine engine = new GameEngine(0);
+            Random random = new Random(1);
+            for (long seed = 1; seed <= 5; seed++) {
+                engine.reset(seed);
+                engine.start();
+                while (engine.isRunning()) {
+                    engine.step(random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT);
+                }
+                expected.add(engine.isGameWon() + " " + engine.getTick() + " " + engine.getScore()
+                        + " " + engine.getLivesLost());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        List<String> ends = new ArrayList<>();
+        int powerPellets = 0;
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals("pacman.games.GameEnd")) {
+                ends.add(event.getBoolean("won") + " " + event.getLong("tick") + " " + event.getInt("score")
+                        + " " + event.getInt("livesLost"));
+            } else {
+                assertEquals(2, event.getInt("ghosts"));
+                powerPellets++;
+            }
+        }
+        assertEquals(expected, ends);
+        assertTrue(powerPellets > 0, "No power pellet in five games");
+    }
+}
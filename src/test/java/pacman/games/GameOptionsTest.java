@@ -0,0 +1,52 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Command line parsing, and the usage errors it reports.
+ */
+class GameOptionsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaySpeedMustBePositive() {
+        assertEquals(4, GameOptions.parse(new String[0]).getReplaySpeed());
+        assertEquals(16, GameOptions.parse(new String[] {"--replay-speed=16"}).getReplaySpeed());
+        for (String speed : new String[] {"0", "-2"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> GameOptions.parse(new String[] {"--replay-speed=" + speed}));
+            assertTrue(e.getMessage().contains("--replay-speed=" + speed), e.getMessage());
+        }
+    }
+
+    @Test
+    void startLevelMustBeInThePack() throws IOException {
+        Path path = dir.resolve("two.pmlp");
+        LevelPack.write(path, List.of(Maze.CLASSIC, MazeGenerator.generate(31, 31, 3, 1)));
+        GameOptions options = GameOptions.parse(new String[] {"--levels=" + path, "--level=1"});
+        assertEquals(31, options.getMaze().getCols());
+        for (String level : new String[] {"2", "-1"}) {
+            GameOptions outside = GameOptions.parse(new String[] {"--levels=" + path, "--level=" + level});
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, outside::getMaze);
+            assertTrue(e.getMessage().contains("--level=" + level), e.getMessage());
+            assertTrue(e.getMessage().contains("levels 0 to 1"), e.getMessage());
+        }
+    }
+
+    @Test
+    void unknownOptionIsRejected() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> GameOptions.parse(new String[] {"--speed=2"}));
+        assertTrue(e.getMessage().contains("--speed=2"), e.getMessage());
+    }
+}
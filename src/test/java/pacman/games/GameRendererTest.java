@@ -0,0 +1,102 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * The dirty-cell repaint must leave exactly the picture a full repaint draws.
+ */
+class GameRendererTest {
+
+    private static final int TICKS = 300;
+
+    static Stream<Arguments> mazes() {
+        return Stream.of(
+                Arguments.of("classic", Maze.CLASSIC),
+                Arguments.of("classic with 40 ghosts", Maze.classic(40)),
+                Arguments.of("generated 41x41", MazeGenerator.generate(41, 41, 6, 1)),
+                Arguments.of("generated 99x99", MazeGenerator.generate(99, 99, 20, 3)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("mazes")
+    void repaintingDirtyCellsMatchesFullRepaint(String name, Maze maze) {
+        GameEngine engine = new GameEngine(maze, 7);
+        engine.start();
+        GameRenderer renderer = new GameRenderer(engine);
+        BufferedImage incremental = newImage(renderer);
+        BufferedImage full = newImage(renderer);
+        paint(renderer, incremental);
+        Random random = new Random(1);
+        int ticks = 0;
+        while (engine.isRunning() && ticks < TICKS) {
+            engine.step(random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT);
+            ticks++;
+            repaintChanges(engine, renderer, incremental);
+            paint(renderer, full);
+            assertArrayEquals(pixels(full), pixels(incremental), "Tick " + engine.getTick() + " of " + name);
+        }
+        assertTrue(ticks > 50, "Game ended after " + ticks + " ticks");
+    }
+
+    // Paints what PacManGame.repaintChanges paints: one paint, clipped to each region in turn
+    private static void repaintChanges(GameEngine engine, GameRenderer renderer, BufferedImage image) {
+        if (engine.isFullRepaintNeeded()) {
+            paint(renderer, image);
+            return;
+        }
+        int tile = renderer.getTileSize();
+        int cols = engine.getMaze().getCols();
+        Graphics2D g = image.createGraphics();
+        try {
+            Shape fullClip = g.getClip();
+            for (int i = 0; i < engine.getDirtyCellCount(); i++) {
+                int cell = engine.getDirtyCell(i);
+                g.clipRect((cell % cols) * tile - 1, (cell / cols) * tile - 1, tile + 2, tile + 2);
+                clearAndDraw(renderer, g);
+                g.setClip(fullClip);
+            }
+            if (engine.isHudDirty()) {
+                g.clipRect(0, renderer.getHudY(), renderer.getWidth(), renderer.getHeight() - renderer.getHudY());
+                clearAndDraw(renderer, g);
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void paint(GameRenderer renderer, BufferedImage image) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setClip(0, 0, image.getWidth(), image.getHeight());
+            clearAndDraw(renderer, g);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Clears the clip to the background, as the panel does, and draws the game over it
+    private static void clearAndDraw(GameRenderer renderer, Graphics2D g) {
+        g.setColor(GameRenderer.WALL_COLOR);
+        g.fill(g.getClipBounds());
+        renderer.draw(g);
+    }
+
+    private static BufferedImage newImage(GameRenderer renderer) {
+        return new BufferedImage(renderer.getWidth(), renderer.getHeight(), BufferedImage.TYPE_INT_RGB);
+    }
+
+    private static int[] pixels(BufferedImage image) {
+        return ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+    }
+}
@@ -0,0 +1,111 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * A restored snapshot must play out exactly as the game it was taken from.
+ */
+class GameSnapshotTest {
+
+    private static final int MAX_TICKS = 5000;
+
+    @ParameterizedTest
+    @EnumSource(GhostBehaviour.class)
+    void restoredGameEndsTheSameWay(GhostBehaviour behaviour) {
+        int[] inputs = inputs(1);
+        GameEngine engine = new GameEngine(42);
+        engine.setGhostBehaviour(behaviour);
+        engine.start();
+        GameSnapshot[] snapshots = new GameSnapshot[MAX_TICKS + 1];
+        while (engine.isRunning() && engine.getTick() < MAX_TICKS) {
+            snapshots[(int) engine.getTick()] = engine.snapshot();
+            engine.step(inputs[(int) engine.getTick()]);
+        }
+        long endTick = engine.getTick();
+        int endScore = engine.getScore();
+        int endPellets = engine.getPelletsRemaining();
+        int endLivesLost = engine.getLivesLost();
+
+        // Rewind to a few points, both in this engine and in a fresh one
+        for (long from = 0; from < endTick; from += Math.max(1, endTick / 7)) {
+            GameEngine[] engines = {engine, new GameEngine(0)};
+            for (GameEngine replay : engines) {
+                replay.setGhostBehaviour(behaviour);
+                replay.restore(snapshots[(int) from]);
+                assertEquals(from, replay.getTick());
+                while (replay.isRunning() && replay.getTick() < MAX_TICKS) {
+                    replay.step(inputs[(int) replay.getTick()]);
+                }
+                String at = "Restored at tick " + from;
+                assertEquals(endTick, replay.getTick(), at);
+                assertEquals(endScore, replay.getScore(), at);
+                assertEquals(endPellets, replay.getPelletsRemaining(), at);
+                assertEquals(endLivesLost, replay.getLivesLost(), at);
+            }
+        }
+    }
+
+    @Test
+    void snapshotKeepsItsPelletsWhileTheGameEatsOn() {
+        GameEngine engine = new GameEngine(42);
+        engine.start();
+        GameSnapshot snapshot = engine.snapshot();
+        long[] pellets = snapshot.pellets.clone();
+        int[] inputs = inputs(2);
+        while (engine.isRunning() && engine.getPelletsEaten() < 20) {
+            engine.step(inputs[(int) engine.getTick()]);
+        }
+        assertTrue(engine.getPelletsEaten() >= 20);
+        assertEquals(Maze.countBits(pellets), Maze.countBits(snapshot.pellets));
+        for (int i = 0; i < pellets.length; i++) {
+            assertEquals(pellets[i], snapshot.pellets[i]);
+        }
+
+        engine.restore(snapshot);
+        assertEquals(Maze.CLASSIC.getPelletCount(), engine.getPelletsRemaining());
+        engine.step(GameEngine.NO_INPUT);
+        engine.reset(); // Must not write into the snapshot's bitset either
+        assertEquals(Maze.countBits(pellets), Maze.countBits(snapshot.pellets));
+    }
+
+    @Test
+    void restoreNeedsTheSameMaze() {
+        GameSnapshot snapshot = new GameEngine(Maze.classic(3), 1).snapshot();
+        GameEngine engine = new GameEngine(1);
+        assertThrows(IllegalArgumentException.class, () -> engine.restore(snapshot));
+    }
+
+    @Test
+    void gameRandomMatchesJavaUtilRandom() {
+        for (long seed : new long[] {0, 1, 42, -7, Long.MAX_VALUE}) {
+            Random expected = new Random(seed);
+            GameRandom random = new GameRandom(seed);
+            for (int i = 0; i < 1000; i++) {
+                int bound = 1 + i % 17 + (i % 5 == 0 ? 1 << 20 : 0); // Powers of two and not
+                assertEquals(expected.nextInt(bound), random.nextInt(bound), "Seed " + seed + " draw " + i);
+            }
+            // Saving and restoring the state resumes the same sequence
+            long state = random.getState();
+            int next = random.nextInt(100);
+            random.setState(state);
+            assertEquals(next, random.nextInt(100));
+        }
+    }
+
+    // Random steering for every tick: half of the ticks turn
+    private static int[] inputs(long seed) {
+        Random random = new Random(seed);
+        int[] inputs = new int[MAX_TICKS + 1];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT;
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,110 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * The chase/scatter AI moves ghosts one legal tile a tick and turns back only at dead ends.
+ */
+class GhostBehaviourTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 2, 3, 4, 5})
+    void chasingGhostsReverseOnlyAtDeadEnds(long seed) {
+        GameEngine engine = new GameEngine(seed);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        engine.start();
+        Maze maze = engine.getMaze();
+        GhostStore store = engine.getGhosts();
+        int ghosts = store.size();
+        int[] lastX = new int[ghosts];
+        int[] lastY = new int[ghosts];
+        int[] lastDx = new int[ghosts];
+        int[] lastDy = new int[ghosts];
+        Random random = new Random(seed);
+        int moves = 0;
+        while (engine.isRunning() && engine.getTick() < 3_000) {
+            System.arraycopy(store.x, 0, lastX, 0, ghosts);
+            System.arraycopy(store.y, 0, lastY, 0, ghosts);
+            System.arraycopy(store.dx, 0, lastDx, 0, ghosts);
+            System.arraycopy(store.dy, 0, lastDy, 0, ghosts);
+            int lives = engine.getPacMan().lives;
+            engine.step(random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT);
+            if (engine.getPacMan().lives != lives) {
+                continue; // Everyone went back to the start
+            }
+            for (int i = 0; i < ghosts; i++) {
+                int dx = store.dx[i];
+                int dy = store.dy[i];
+                if (store.x[i] != lastX[i] + dx || store.y[i] != lastY[i] + dy) {
+                    continue; // Eaten and sent home
+                }
+                int from = lastY[i] * maze.getCols() + lastX[i];
+                assertEquals(1, Integer.bitCount(maze.getMoves(from) & moveBit(dx, dy)),
+                        "Illegal move at tick " + engine.getTick());
+                if (dx == -lastDx[i] && dy == -lastDy[i] && (dx != 0 || dy != 0)) {
+                    assertEquals(1, Integer.bitCount(maze.getMoves(from)),
+                            "Ghost " + i + " reversed off a dead end at tick " + engine.getTick());
+                }
+                moves++;
+            }
+        }
+        assertTrue(moves > 100, "Only " + moves + " ghost moves checked");
+    }
+
+    @Test
+    void aLostGameLosesEachLifeOnce() {
+        GameEngine engine = new GameEngine(0);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        Random random = new Random(4);
+        int lost = 0;
+        for (long seed = 0; seed < 50; seed++) {
+            engine.reset(seed);
+            engine.start();
+            while (engine.isRunning() && engine.getTick() < 5_000) {
+                engine.step(random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT);
+            }
+            assertTrue(engine.getPacMan().lives >= 0, "Seed " + seed);
+            assertTrue(engine.getLivesLost() <= 3, "Seed " + seed);
+            lost += engine.isGameOver() ? 1 : 0;
+        }
+        assertTrue(lost > 10, "Only " + lost + " games lost");
+    }
+
+    @Test
+    void ghostsSharingATileSplitUp() {
+        // Every ghost respawns on the same cell; chasing ghosts must not stay merged
+        GameEngine engine = new GameEngine(Maze.classic(4), 3);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        engine.start();
+        GhostStore ghosts = engine.getGhosts();
+        int shared = 0;
+        int longest = 0;
+        while (engine.isRunning() && engine.getTick() < 3_000) {
+            engine.step(GameEngine.NO_INPUT);
+            boolean anyShared = false;
+            for (int i = 0; i < ghosts.size(); i++) {
+                for (int j = i + 1; j < ghosts.size(); j++) {
+                    anyShared |= ghosts.x[i] == ghosts.x[j] && ghosts.y[i] == ghosts.y[j];
+                }
+            }
+            shared = anyShared ? shared + 1 : 0;
+            longest = Math.max(longest, shared);
+        }
+        assertTrue(longest < 40, "Ghosts shared a tile for " + longest + " ticks");
+    }
+
+    private static int moveBit(int dx, int dy) {
+        for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+            if (GameEngine.DIRECTION_DX[d] == dx && GameEngine.DIRECTION_DY[d] == dy) {
+                return 1 << d;
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,114 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Whole-herd operations on the ghost arrays, including herds that do not fill a bitset word.
+ */
+class GhostStoreTest {
+
+    @Test
+    void frightenAllSetsOnlyRealGhosts() {
+        for (int count : new int[] {1, 63, 64, 65, 130}) {
+            GhostStore ghosts = new GhostStore(count);
+            ghosts.frightenAll(40);
+            assertEquals(count, Maze.countBits(ghosts.frightened), count + " ghosts");
+            for (int i = 0; i < count; i++) {
+                assertTrue(ghosts.isFrightened(i));
+                assertEquals(40, ghosts.frightenedUntilTick[i]);
+            }
+        }
+    }
+
+    @Test
+    void frightenedStateEndsAfterItsTick() {
+        GhostStore ghosts = new GhostStore(70);
+        ghosts.frightenAll(10);
+        ghosts.reset(3, 1, 1);
+        ghosts.frightenedUntilTick[69] = 20;
+        ghosts.expireFrightened(10);
+        assertTrue(ghosts.isFrightened(0));
+        assertFalse(ghosts.isFrightened(3)); // Reset clears it
+        ghosts.expireFrightened(11);
+        assertFalse(ghosts.isFrightened(0));
+        assertTrue(ghosts.isFrightened(69));
+        assertEquals(1, Maze.countBits(ghosts.frightened));
+        ghosts.expireFrightened(21);
+        assertEquals(0, Maze.countBits(ghosts.frightened));
+    }
+
+    @Test
+    void frightenedStateLastsPastTheIntRange() {
+        // A long game's tick counter outgrows an int; the timers must not wrap with it
+        GhostStore ghosts = new GhostStore(2);
+        long untilTick = Integer.MAX_VALUE + 100L;
+        ghosts.frightenAll(untilTick);
+        ghosts.expireFrightened(Integer.MAX_VALUE + 1L);
+        assertTrue(ghosts.isFrightened(0));
+        ghosts.expireFrightened(untilTick);
+        assertTrue(ghosts.isFrightened(1));
+        ghosts.expireFrightened(untilTick + 1);
+        assertEquals(0, Maze.countBits(ghosts.frightened));
+    }
+
+    @Test
+    void resetAndSavePositionsKeepPreviousTiles() {
+        GhostStore ghosts = new GhostStore(2);
+        ghosts.reset(0, 4, 5);
+        ghosts.reset(1, 6, 7);
+        assertEquals(4, ghosts.prevX[0]);
+        assertEquals(7, ghosts.prevY[1]);
+        ghosts.savePositions();
+        ghosts.x[0] = 5;
+        ghosts.dx[0] = 1;
+        assertEquals(4, ghosts.prevX[0]);
+        ghosts.savePositions();
+        assertEquals(5, ghosts.prevX[0]);
+        ghosts.reset(0, 4, 5);
+        assertEquals(0, ghosts.dx[0]);
+        assertEquals(4, ghosts.prevX[0]);
+    }
+
+    @Test
+    void restoredStateMatchesTheSavedOne() {
+        GhostStore ghosts = new GhostStore(3);
+        for (int i = 0; i < 3; i++) {
+            ghosts.reset(i, i, 10 + i);
+            ghosts.savePositions();
+            ghosts.x[i]++;
+            ghosts.dx[i] = 1;
+        }
+        ghosts.frightenAll(25);
+        ghosts.reset(1, 1, 11);
+        int[] state = ghosts.saveState();
+        long[] frightened = ghosts.frightened.clone();
+        long[] frightenedUntil = ghosts.frightenedUntilTick.clone();
+
+        GhostStore other = new GhostStore(3);
+        other.frightenAll(99);
+        other.x[2] = 50;
+        other.restoreState(state, frightened, frightenedUntil);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(ghosts.x[i], other.x[i]);
+            assertEquals(ghosts.y[i], other.y[i]);
+            assertEquals(ghosts.prevX[i], other.prevX[i]);
+            assertEquals(ghosts.prevY[i], other.prevY[i]);
+            assertEquals(ghosts.dx[i], other.dx[i]);
+            assertEquals(ghosts.dy[i], other.dy[i]);
+            assertEquals(ghosts.frightenedUntilTick[i], other.frightenedUntilTick[i]);
+            assertEquals(ghosts.isFrightened(i), other.isFrightened(i));
+        }
+        assertFalse(other.isFrightened(1));
+
+        // The saved state is a copy, not a view
+        ghosts.x[0] = 77;
+        ghosts.frightenedUntilTick[0] = 5;
+        other.restoreState(state, frightened, frightenedUntil);
+        assertEquals(1, other.x[0]);
+        assertEquals(25, other.frightenedUntilTick[0]);
+    }
+}
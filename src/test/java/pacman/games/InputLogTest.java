@@ -0,0 +1,170 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Recordings written by InputRecorder must read back input for input, and a recording cut
+ * off anywhere must still read as the games it holds up to the cut.
+ */
+class InputLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tickDeltasOfEveryVarintLength() throws IOException {
+        // Deltas of 0, 31 and 32 ticks straddle the one-byte varint; the rest need up to six bytes
+        long[] ticks = {0, 0, 31, 63, 64 + 1000, 64 + 1000 + (1L << 20), 1L << 40};
+        Path path = dir.resolve("varints.pmr");
+        try (InputRecorder recorder = new InputRecorder(path, Maze.CLASSIC, GhostBehaviour.RANDOM)) {
+            recorder.startGame(-1L);
+            for (int i = 0; i < ticks.length; i++) {
+                recorder.record(ticks[i], i % 4);
+            }
+            recorder.endGame(ticks[ticks.length - 1] + 200, 12345);
+        }
+
+        InputLog log = InputLog.read(path);
+        assertEquals(Maze.CLASSIC.getId(), log.getMazeId());
+        assertEquals(GhostBehaviour.RANDOM, log.getGhostBehaviour());
+        assertEquals(1, log.getGames().size());
+        InputLog.Game game = log.getGames().get(0);
+        assertEquals(-1L, game.getSeed());
+        assertEquals(ticks.length, game.getInputCount());
+        for (int i = 0; i < ticks.length; i++) {
+            assertEquals(ticks[i], game.getInputTick(i), "Input " + i);
+            assertEquals(i % 4, game.getDirection(i), "Input " + i);
+        }
+        assertTrue(game.isComplete());
+        assertEquals(ticks[ticks.length - 1] + 200, game.getFinalTick());
+        assertEquals(12345, game.getFinalScore());
+    }
+
+    @Test
+    void recordedGamesReplay() throws IOException {
+        Path path = record(3);
+        InputLog log = InputLog.read(path);
+        assertEquals(3, log.getGames().size());
+        GameEngine engine = new GameEngine(Maze.forId(log.getMazeId()), 0);
+        engine.setGhostBehaviour(log.getGhostBehaviour());
+        for (InputLog.Game game : log.getGames()) {
+            assertTrue(game.isComplete());
+            assertTrue(game.replay(engine), "Game with seed " + game.getSeed());
+        }
+    }
+
+    @Test
+    void truncatedRecordingKeepsEveryCompleteInput() throws IOException {
+        Path path = record(2);
+        byte[] bytes = Files.readAllBytes(path);
+        List<InputLog.Game> games = InputLog.read(path).getGames();
+        int headerSize = 4 + 1 + 2 + Maze.CLASSIC.getId().length() + 2 + GhostBehaviour.RANDOM.name().length();
+
+        Path truncated = dir.resolve("truncated.pmr");
+        for (int length = headerSize; length < bytes.length; length++) {
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            List<InputLog.Game> read = InputLog.read(truncated).getGames();
+            assertTrue(read.size() <= games.size(), "Length " + length);
+            for (int i = 0; i < read.size(); i++) {
+                InputLog.Game game = read.get(i);
+                InputLog.Game original = games.get(i);
+                assertEquals(original.getSeed(), game.getSeed(), "Length " + length);
+                assertTrue(game.getInputCount() <= original.getInputCount(), "Length " + length);
+                for (int j = 0; j < game.getInputCount(); j++) {
+                    assertEquals(original.getInputTick(j), game.getInputTick(j), "Length " + length);
+                    assertEquals(original.getDirection(j), game.getDirection(j), "Length " + length);
+                }
+                if (i < read.size() - 1) {
+                    assertTrue(game.isComplete(), "Length " + length);
+                }
+            }
+            if (!read.isEmpty()) {
+                InputLog.Game last = read.get(read.size() - 1);
+                if (!last.isComplete()) {
+                    // A cut-off game replays up to its last complete input
+                    GameEngine engine = new GameEngine(0);
+                    assertTrue(last.replay(engine), "Length " + length);
+                }
+            }
+        }
+    }
+
+    @Test
+    void recordingCutOffInsideASeedKeepsTheEarlierGames() throws IOException {
+        Path path = record(2);
+        byte[] bytes = Files.readAllBytes(path);
+        List<InputLog.Game> games = InputLog.read(path).getGames();
+        int secondGame = gameOffset(bytes, games.get(1).getSeed());
+        for (int length = secondGame + 1; length < secondGame + 1 + Long.BYTES; length++) {
+            Path truncated = dir.resolve("seed" + length + ".pmr");
+            Files.write(truncated, Arrays.copyOf(bytes, length));
+            List<InputLog.Game> read = InputLog.read(truncated).getGames();
+            assertEquals(1, read.size(), "Length " + length);
+            assertTrue(read.get(0).isComplete());
+        }
+    }
+
+    @Test
+    void otherFilesAreRejected() throws IOException {
+        Path path = dir.resolve("other.pmr");
+        Files.write(path, new byte[] {'P', 'K', 3, 4, 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> InputLog.read(path));
+
+        byte[] bytes = Files.readAllBytes(record(1));
+        bytes[4] = InputRecorder.VERSION - 1;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> InputLog.read(path));
+    }
+
+    @Test
+    void corruptGameTagIsRejected() throws IOException {
+        Path path = record(2);
+        byte[] bytes = Files.readAllBytes(path);
+        List<InputLog.Game> games = InputLog.read(path).getGames();
+        bytes[gameOffset(bytes, games.get(1).getSeed())] = 7;
+        Files.write(path, bytes);
+        assertThrows(IOException.class, () -> InputLog.read(path));
+    }
+
+    // Plays games with random steering through an engine that records them
+    private Path record(int games) throws IOException {
+        Path path = dir.resolve("games" + games + ".pmr");
+        GameEngine engine = new GameEngine(Maze.CLASSIC, 11);
+        engine.startRecording(new InputRecorder(path, Maze.CLASSIC, GhostBehaviour.RANDOM));
+        Random random = new Random(1);
+        for (int game = 0; game < games; game++) {
+            if (game > 0) {
+                engine.reset(11 + game);
+            }
+            engine.start();
+            while (engine.isRunning()) {
+                engine.step(random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT);
+            }
+        }
+        engine.stopRecording();
+        return path;
+    }
+
+    // Finds the GAME_TAG byte followed by the given seed
+    private static int gameOffset(byte[] bytes, long seed) {
+        for (int i = bytes.length - Long.BYTES - 1; i >= 0; i--) {
+            if (bytes[i] == InputRecorder.GAME_TAG
+                    && ByteBuffer.wrap(bytes, i + 1, Long.BYTES).getLong() == seed) {
+                return i;
+            }
+        }
+        throw new AssertionError("No game with seed " + seed);
+    }
+}
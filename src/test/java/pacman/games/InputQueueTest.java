@@ -0,0 +1,69 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+/**
+ * The key-press queue hands inputs from one thread to another in order, without losing any.
+ */
+class InputQueueTest {
+
+    @Test
+    void inputsComeOutInOrder() {
+        InputQueue queue = new InputQueue(4);
+        assertEquals(GameEngine.NO_INPUT, queue.poll());
+        assertTrue(queue.offer(GameEngine.LEFT));
+        assertTrue(queue.offer(GameEngine.UP));
+        assertEquals(GameEngine.LEFT, queue.poll());
+        assertTrue(queue.offer(GameEngine.RIGHT));
+        assertEquals(GameEngine.UP, queue.poll());
+        assertEquals(GameEngine.RIGHT, queue.poll());
+        assertEquals(GameEngine.NO_INPUT, queue.poll());
+    }
+
+    @Test
+    void fullQueueDropsNewInputsAndClearEmptiesIt() {
+        InputQueue queue = new InputQueue(3); // Rounded up to 4
+        for (int i = 0; i < 4; i++) {
+            assertTrue(queue.offer(i));
+        }
+        assertFalse(queue.offer(GameEngine.DOWN));
+        assertEquals(0, queue.poll());
+        assertTrue(queue.offer(GameEngine.DOWN));
+        queue.clear();
+        assertEquals(GameEngine.NO_INPUT, queue.poll());
+        assertTrue(queue.offer(GameEngine.UP));
+        assertEquals(GameEngine.UP, queue.poll());
+    }
+
+    @Test
+    @Timeout(value = 60, unit = TimeUnit.SECONDS, threadMode = Timeout.ThreadMode.SEPARATE_THREAD)
+    void twoThreadsPassEveryInputInOrder() throws InterruptedException {
+        int inputs = 200_000;
+        InputQueue queue = new InputQueue(16);
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < inputs; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield(); // Full: let the consumer run
+                }
+            }
+        });
+        producer.start();
+        for (int expected = 0; expected < inputs; ) {
+            int input = queue.poll();
+            if (input == GameEngine.NO_INPUT) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected, input);
+            expected++;
+        }
+        producer.join();
+        assertEquals(GameEngine.NO_INPUT, queue.poll());
+    }
+}
@@ -0,0 +1,171 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Levels must decode to the mazes they were written from, and damaged levels must fail
+ * with "Corrupt level" when loaded.
+ */
+class LevelPackTest {
+
+    private static final int LEVEL_HEADER_SIZE = 14; // cols, rows, pacManStart, ghostHouse, ghosts
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void levelsDecodeToTheWrittenMazes() throws IOException {
+        List<Maze> mazes = List.of(Maze.CLASSIC, MazeGenerator.generate(31, 25, 5, 9), Maze.classic(1));
+        Path path = dir.resolve("pack.pmlp");
+        LevelPack.write(path, mazes);
+
+        LevelPack pack = LevelPack.open(path, 2);
+        assertEquals(mazes.size(), pack.getLevelCount());
+        for (int i = 0; i < mazes.size(); i++) {
+            assertSameMaze(mazes.get(i), pack.getLevel(i));
+        }
+        assertSame(pack.getLevel(2), pack.getLevel(2)); // Cached
+        assertThrows(IndexOutOfBoundsException.class, () -> pack.getLevel(mazes.size()));
+    }
+
+    @Test
+    void decodedLevelPlaysLikeTheOriginal() throws IOException {
+        Path path = dir.resolve("pack.pmlp");
+        LevelPack.write(path, List.of(Maze.CLASSIC));
+        GameEngine original = new GameEngine(Maze.CLASSIC, 42);
+        GameEngine decoded = new GameEngine(LevelPack.open(path).getLevel(0), 42);
+        original.start();
+        decoded.start();
+        while (original.isRunning()) {
+            original.step(GameEngine.NO_INPUT);
+            decoded.step(GameEngine.NO_INPUT);
+        }
+        assertEquals(original.getTick(), decoded.getTick());
+        assertEquals(original.getScore(), decoded.getScore());
+    }
+
+    @Test
+    void notALevelPack() throws IOException {
+        Path path = dir.resolve("other.pmlp");
+        Files.write(path, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+        Files.write(path, new byte[] {'P', 'M'});
+        assertThrows(IOException.class, () -> LevelPack.open(path));
+    }
+
+    @Test
+    void zeroSize() throws IOException {
+        assertCorrupt("size 0x", level -> level.putShort(0, (short) 0));
+        assertCorrupt("size 21x0", level -> level.putShort(2, (short) 0));
+    }
+
+    @Test
+    void sizeLargerThanTheFile() throws IOException {
+        // 65535x65535 is read unsigned, and overflows an int when multiplied
+        assertCorrupt("past the end of the file", level -> {
+            level.putShort(0, (short) 0xFFFF);
+            level.putShort(2, (short) 0xFFFF);
+        });
+        assertCorrupt("past the end of the file", level -> level.putShort(12, (short) 0xFFFF)); // Ghost count
+    }
+
+    @Test
+    void unknownTileCode() throws IOException {
+        assertCorrupt("tile code 7", level -> level.put(tileOffset(level) + 5, (byte) 7));
+        assertCorrupt("tile code -1", level -> level.put(tileOffset(level), (byte) -1));
+    }
+
+    @Test
+    void startsOutsideTheMaze() throws IOException {
+        int cells = Maze.CLASSIC.getCellCount();
+        assertCorrupt("Pac-Man cell -1 outside", level -> level.putInt(4, -1));
+        assertCorrupt("Pac-Man cell " + cells + " outside", level -> level.putInt(4, cells));
+        assertCorrupt("ghost 1 cell " + cells + " outside", level -> level.putInt(LEVEL_HEADER_SIZE + 4, cells));
+        assertCorrupt("ghost house cell -2 outside", level -> level.putInt(8, -2));
+    }
+
+    @Test
+    void startsOnWalls() throws IOException {
+        // Cell 0 is a corner wall; cell 22 (row 1, col 1) is open
+        assertCorrupt("Pac-Man cell 0 is a wall", level -> level.putInt(4, 0));
+        assertCorrupt("ghost 0 cell 0 is a wall with no way out", level -> level.putInt(LEVEL_HEADER_SIZE, 0));
+        assertCorrupt("Pac-Man cell 22 is a wall", level -> level.put(tileOffset(level) + 22, (byte) 1).putInt(4, 22));
+    }
+
+    @Test
+    void truncatedLevel() throws IOException {
+        Path path = dir.resolve("truncated.pmlp");
+        LevelPack.write(path, List.of(Maze.CLASSIC));
+        byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        LevelPack pack = LevelPack.open(path);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> pack.getLevel(0));
+        assertTrue(e.getMessage().contains("Corrupt level 0"), e.getMessage());
+    }
+
+    @Test
+    void offsetOutsideTheFile() throws IOException {
+        Path path = dir.resolve("offset.pmlp");
+        LevelPack.write(path, List.of(Maze.CLASSIC));
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).putLong(4 + 1 + 4, bytes.length);
+        Files.write(path, bytes);
+        LevelPack pack = LevelPack.open(path);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> pack.getLevel(0));
+        assertTrue(e.getMessage().contains("outside the file"), e.getMessage());
+    }
+
+    // Writes the classic maze as the only level, lets corrupt change it, and expects loading it to fail
+    private void assertCorrupt(String reason, Consumer<ByteBuffer> corrupt) throws IOException {
+        Path path = dir.resolve("corrupt.pmlp");
+        LevelPack.write(path, List.of(Maze.CLASSIC));
+        byte[] bytes = Files.readAllBytes(path);
+        int levelStart = 4 + 1 + 4 + 8;
+        corrupt.accept(ByteBuffer.wrap(bytes, levelStart, bytes.length - levelStart).slice());
+        Files.write(path, bytes);
+
+        LevelPack pack = LevelPack.open(path);
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> pack.getLevel(0));
+        assertTrue(e.getMessage().contains("Corrupt level 0"), e.getMessage());
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+
+    private static int tileOffset(ByteBuffer level) {
+        return LEVEL_HEADER_SIZE + 4 * Short.toUnsignedInt(level.getShort(12));
+    }
+
+    private static void assertSameMaze(Maze expected, Maze actual) {
+        assertEquals(expected.getCols(), actual.getCols());
+        assertEquals(expected.getRows(), actual.getRows());
+        assertEquals(expected.getPacManStart(), actual.getPacManStart());
+        assertEquals(expected.getGhostHouse(), actual.getGhostHouse());
+        assertEquals(expected.getGhostStartCount(), actual.getGhostStartCount());
+        for (int i = 0; i < expected.getGhostStartCount(); i++) {
+            assertEquals(expected.getGhostStart(i), actual.getGhostStart(i), "Ghost " + i);
+        }
+        assertEquals(expected.getPelletCount(), actual.getPelletCount());
+        long[] expectedPellets = expected.newPelletBits();
+        long[] actualPellets = actual.newPelletBits();
+        expected.copyPelletsInto(expectedPellets);
+        actual.copyPelletsInto(actualPellets);
+        for (int cell = 0; cell < expected.getCellCount(); cell++) {
+            assertEquals(expected.isWall(cell), actual.isWall(cell), "Cell " + cell);
+            assertEquals(Maze.isSet(expectedPellets, cell), Maze.isSet(actualPellets, cell), "Cell " + cell);
+            assertEquals(expected.isPowerPellet(cell), actual.isPowerPellet(cell), "Cell " + cell);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayDeque;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Generated mazes are connected, fully pelleted and reproducible from their seed.
+ */
+class MazeGeneratorTest {
+
+    @ParameterizedTest
+    @CsvSource({"5, 5, 1, 1", "21, 21, 4, 2", "40, 25, 30, 3", "101, 99, 200, 4"})
+    void everyOpenTileIsReachableFromPacMan(int cols, int rows, int ghosts, long seed) {
+        Maze maze = MazeGenerator.generate(cols, rows, ghosts, seed);
+        assertEquals(cols, maze.getCols());
+        assertEquals(rows, maze.getRows());
+        assertEquals(ghosts, maze.getGhostStartCount());
+
+        boolean[] reached = new boolean[maze.getCellCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        reached[maze.getPacManStart()] = true;
+        queue.add(maze.getPacManStart());
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+            for (int d = GameEngine.UP; d <= GameEngine.RIGHT; d++) {
+                if ((maze.getMoves(cell) & (1 << d)) != 0) {
+                    int next = cell + GameEngine.DIRECTION_DX[d] + GameEngine.DIRECTION_DY[d] * cols;
+                    if (!reached[next]) {
+                        reached[next] = true;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+
+        long[] pellets = maze.newPelletBits();
+        maze.copyPelletsInto(pellets);
+        int open = 0;
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            if (!maze.isWall(cell)) {
+                open++;
+                assertTrue(reached[cell], "Cell " + cell + " is cut off");
+            }
+            if (cell % cols == 0 || cell % cols == cols - 1 || cell / cols == 0 || cell / cols == rows - 1) {
+                assertTrue(maze.isWall(cell), "Border cell " + cell + " is open");
+            }
+        }
+        assertFalse(Maze.isSet(pellets, maze.getPacManStart()));
+        assertEquals(open - 1, maze.getPelletCount()); // Every open tile but Pac-Man's
+        for (int i = 0; i < ghosts; i++) {
+            assertFalse(maze.isWall(maze.getGhostStart(i)), "Ghost " + i + " starts in a wall");
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSameMaze() {
+        assertEquals(describe(MazeGenerator.generate(41, 31, 12, 8)), describe(MazeGenerator.generate(41, 31, 12, 8)));
+        assertNotEquals(describe(MazeGenerator.generate(41, 31, 12, 8)), describe(MazeGenerator.generate(41, 31, 12, 9)));
+    }
+
+    @Test
+    void rejectsMazesTooSmallForACorridor() {
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(MazeGenerator.MIN_SIZE - 1, 10, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> MazeGenerator.generate(10, 10, -1, 1));
+    }
+
+    // Walls, pellets and start cells as text, for comparing two mazes
+    private static String describe(Maze maze) {
+        StringBuilder s = new StringBuilder();
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            s.append(maze.isWall(cell) ? '#' : maze.isPowerPellet(cell) ? 'o' : '.');
+        }
+        s.append(' ').append(maze.getPacManStart());
+        for (int i = 0; i < maze.getGhostStartCount(); i++) {
+            s.append(' ').append(maze.getGhostStart(i));
+        }
+        return s.toString();
+    }
+}
@@ -0,0 +1,60 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Maze bitsets and precomputed move masks against the tile layout they are built from.
+ */
+class MazeTest {
+
+    private static final int[][] LAYOUT = {
+            {1,1,1,1,1},
+            {1,3,2,0,1},
+            {1,2,1,2,1},
+            {1,1,1,1,1}
+    };
+
+    @Test
+    void powerPelletsAreAlsoPellets() {
+        Maze maze = new Maze(LAYOUT, 3, 1, new int[] {1, 2});
+        assertEquals(4, maze.getPelletCount());
+        long[] pellets = maze.newPelletBits();
+        maze.copyPelletsInto(pellets);
+        assertTrue(Maze.isSet(pellets, 1 * 5 + 1));
+        assertTrue(maze.isPowerPellet(1 * 5 + 1));
+        assertTrue(Maze.isSet(pellets, 1 * 5 + 2));
+        assertFalse(maze.isPowerPellet(1 * 5 + 2));
+        assertFalse(Maze.isSet(pellets, 1 * 5 + 3));
+    }
+
+    @Test
+    void movesOpenOnlyOntoFloor() {
+        Maze maze = new Maze(LAYOUT, 3, 1, new int[] {1, 2});
+        assertEquals(1 << GameEngine.DOWN | 1 << GameEngine.RIGHT, maze.getMoves(1 * 5 + 1));
+        assertEquals(1 << GameEngine.LEFT | 1 << GameEngine.RIGHT, maze.getMoves(1 * 5 + 2));
+        assertEquals(1 << GameEngine.UP, maze.getMoves(2 * 5 + 1));
+        assertEquals(0, maze.getMoves(0));
+        assertTrue(maze.isWall(2 * 5 + 2));
+        assertEquals(1 * 5 + 3, maze.getPacManStart());
+        assertEquals(2 * 5 + 1, maze.getGhostStart(0));
+    }
+
+    @Test
+    void classicMazeMatchesItsLayout() {
+        Maze maze = Maze.CLASSIC;
+        long[] pellets = maze.newPelletBits();
+        maze.copyPelletsInto(pellets);
+        int count = 0;
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            assertTrue(maze.isWall(cell) || maze.getMoves(cell) != 0, "Cell " + cell + " has no way out");
+            assertFalse(maze.isWall(cell) && Maze.isSet(pellets, cell), "Pellet in wall " + cell);
+            count += Maze.isSet(pellets, cell) ? 1 : 0;
+        }
+        assertEquals(maze.getPelletCount(), count);
+        assertEquals(2, maze.getGhostStartCount());
+    }
+}
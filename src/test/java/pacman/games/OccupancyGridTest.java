@@ -0,0 +1,88 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The ghost index by cell: list order, moves, and agreement with the engine's ghosts.
+ */
+class OccupancyGridTest {
+
+    @Test
+    void cellsListTheirActorsInIncreasingOrder() {
+        OccupancyGrid grid = new OccupancyGrid(10, 5);
+        grid.move(3, 4);
+        grid.move(0, 4);
+        grid.move(4, 4);
+        grid.move(1, 4);
+        grid.move(2, 7);
+        assertEquals(List.of(0, 1, 3, 4), actorsOn(grid, 4));
+        assertEquals(List.of(2), actorsOn(grid, 7));
+
+        grid.move(1, 7);
+        grid.move(4, 4); // Already there
+        grid.move(0, 9);
+        assertEquals(List.of(3, 4), actorsOn(grid, 4));
+        assertEquals(List.of(1, 2), actorsOn(grid, 7));
+        assertEquals(List.of(0), actorsOn(grid, 9));
+        assertEquals(List.of(), actorsOn(grid, 0));
+    }
+
+    @Test
+    void engineKeepsTheGridInStepWithItsGhosts() {
+        GameEngine engine = new GameEngine(MazeGenerator.generate(31, 31, 40, 5), 9);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        Random random = new Random(2);
+        for (int game = 0; game < 3; game++) {
+            engine.reset(game);
+            assertGridMatchesGhosts(engine);
+            engine.start();
+            while (engine.isRunning() && engine.getTick() < 2_000) {
+                engine.step(random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT);
+                assertGridMatchesGhosts(engine);
+            }
+        }
+    }
+
+    @Test
+    void movingAGhostOnItsOwnKeepsTheGrid() {
+        // As EngineBenchmark.ghostMove does, outside step()
+        GameEngine engine = new GameEngine(MazeGenerator.generate(31, 31, 6, 2), 4);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        engine.start();
+        for (int move = 0; move < 500; move++) {
+            engine.moveGhost(move % engine.getGhosts().size());
+            assertGridMatchesGhosts(engine);
+        }
+    }
+
+    // Every ghost is listed on its own cell, and nowhere else
+    private static void assertGridMatchesGhosts(GameEngine engine) {
+        int cols = engine.getMaze().getCols();
+        int listed = 0;
+        for (int cell = 0; cell < engine.getMaze().getCellCount(); cell++) {
+            for (int ghost : actorsOn(engine.getGhostGrid(), cell)) {
+                int at = engine.getGhosts().y[ghost] * cols + engine.getGhosts().x[ghost];
+                assertEquals(at, cell, "Ghost " + ghost + " at tick " + engine.getTick());
+                listed++;
+            }
+        }
+        assertEquals(engine.getGhosts().size(), listed, "Tick " + engine.getTick());
+    }
+
+    private static List<Integer> actorsOn(OccupancyGrid grid, int cell) {
+        List<Integer> actors = new ArrayList<>();
+        int last = -1;
+        for (int actor = grid.first(cell); actor != -1; actor = grid.next(actor)) {
+            assertTrue(actor > last, "Out of order on cell " + cell);
+            actors.add(actor);
+            last = actor;
+        }
+        return actors;
+    }
+}
@@ -0,0 +1,189 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Atlas frames land on their tile, show the right sprite, and never spill into neighbours.
+ */
+class SpriteAtlasTest {
+
+    private static final Color[] GHOST_COLORS = {Color.RED, Color.CYAN};
+    private static final int BACKGROUND = Color.BLUE.getRGB();
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 21, 9})
+    void everyFrameStaysOnItsTile(int tile) {
+        SpriteAtlas atlas = atlas(tile);
+        PacMan pacMan = new PacMan(0, 0, 3);
+        int[][] facings = {{1, 0}, {-1, 0}, {0, -1}, {0, 1}, {0, 0}};
+        for (int[] facing : facings) {
+            for (int mouth = 0; mouth <= 45; mouth += SpriteAtlas.MOUTH_STEP) {
+                pacMan.dx = facing[0];
+                pacMan.dy = facing[1];
+                pacMan.mouthAngle = mouth;
+                assertInsideTile(tile, (g, at) -> atlas.drawPacMan(g, at, at, pacMan));
+            }
+        }
+        for (int ghost = 0; ghost < GHOST_COLORS.length; ghost++) {
+            int index = ghost;
+            assertInsideTile(tile, (g, at) -> atlas.drawGhost(g, at, at, index, false));
+        }
+        assertInsideTile(tile, (g, at) -> atlas.drawGhost(g, at, at, 0, true));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 21, 9})
+    void framesShowTheirSprite(int tile) {
+        SpriteAtlas atlas = atlas(tile);
+        int body = tile * 3 / 4; // Below the eyes
+        for (int ghost = 0; ghost < 3; ghost++) {
+            int index = ghost;
+            BufferedImage image = draw(tile, g -> atlas.drawGhost(g, 0, 0, index, false));
+            assertEquals(GHOST_COLORS[ghost % GHOST_COLORS.length].getRGB(), image.getRGB(tile / 2, body), "Ghost " + ghost);
+        }
+        BufferedImage frightened = draw(tile, g -> atlas.drawGhost(g, 0, 0, 1, true));
+        assertNotEquals(GHOST_COLORS[1].getRGB(), frightened.getRGB(tile / 2, body));
+        assertNotEquals(BACKGROUND, frightened.getRGB(tile / 2, body));
+
+        // A wide-open mouth faces the way Pac-Man moves
+        PacMan pacMan = new PacMan(0, 0, 3);
+        pacMan.mouthAngle = 45;
+        int[][] facings = {{1, 0}, {-1, 0}, {0, -1}, {0, 1}};
+        for (int[] facing : facings) {
+            pacMan.dx = facing[0];
+            pacMan.dy = facing[1];
+            BufferedImage image = draw(tile, g -> atlas.drawPacMan(g, 0, 0, pacMan));
+            int half = tile / 2;
+            int edge = tile / 2 - 2;
+            assertEquals(BACKGROUND, image.getRGB(half + facing[0] * edge, half + facing[1] * edge), "Mouth");
+            assertEquals(Color.YELLOW.getRGB(), image.getRGB(half - facing[0] * edge, half - facing[1] * edge), "Back");
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {30, 21, 9})
+    void fractionalScaleCopiesFramesPixelForPixel(int tile) {
+        double scale = 1.5;
+        SpriteAtlas atlas = new SpriteAtlas(tile, GHOST_COLORS, new ScaledConfiguration(scale));
+        int deviceTile = (int) Math.round(tile * scale);
+        PacMan pacMan = new PacMan(0, 0, 3);
+        pacMan.dx = -1;
+        pacMan.mouthAngle = 30;
+        for (int at : new int[] {tile, tile + 1}) { // Odd positions land between device pixels
+            int device = (int) Math.round(at * scale);
+            BufferedImage drawn = draw(3 * deviceTile, g -> {
+                g.scale(scale, scale);
+                atlas.drawPacMan(g, at, at, pacMan);
+            });
+            // The frame is Pac-Man drawn once at the rounded device size, not resampled from another one
+            BufferedImage expected = draw(3 * deviceTile, g -> {
+                g.setColor(Color.YELLOW);
+                g.fillArc(device, device, deviceTile, deviceTile, 180 + 30, 360 - 60);
+            });
+            for (int y = 0; y < drawn.getHeight(); y++) {
+                for (int x = 0; x < drawn.getWidth(); x++) {
+                    assertEquals(expected.getRGB(x, y), drawn.getRGB(x, y), "Pixel (" + x + ", " + y + ") at " + at);
+                }
+            }
+        }
+    }
+
+    private static SpriteAtlas atlas(int tile) {
+        BufferedImage screen = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = screen.createGraphics();
+        try {
+            GraphicsConfiguration gc = g.getDeviceConfiguration();
+            return new SpriteAtlas(tile, GHOST_COLORS, gc);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Draws a frame in the middle of a 3x3 tile image and checks nothing lands past the tile and its edge pixel
+    private static void assertInsideTile(int tile, BiConsumer<Graphics2D, Integer> drawAt) {
+        BufferedImage image = draw(3 * tile, g -> drawAt.accept(g, tile));
+        int drawn = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                boolean inside = x >= tile && x <= 2 * tile && y >= tile && y <= 2 * tile;
+                if (image.getRGB(x, y) != BACKGROUND) {
+                    assertTrue(inside, "Pixel (" + x + ", " + y + ") outside a " + tile + " px tile");
+                    drawn++;
+                }
+            }
+        }
+        assertTrue(drawn > tile, "Frame is empty");
+    }
+
+    private static BufferedImage draw(int size, Consumer<Graphics2D> drawing) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.BLUE);
+            g.fillRect(0, 0, size, size);
+            drawing.accept(g);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    // A screen with a fractional scale, such as a laptop display set to 150%
+    private static final class ScaledConfiguration extends GraphicsConfiguration {
+        private final double scale;
+
+        ScaledConfiguration(double scale) {
+            this.scale = scale;
+        }
+
+        @Override
+        public BufferedImage createCompatibleImage(int width, int height, int transparency) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
+
+        @Override
+        public AffineTransform getDefaultTransform() {
+            return AffineTransform.getScaleInstance(scale, scale);
+        }
+
+        @Override
+        public GraphicsDevice getDevice() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ColorModel getColorModel() {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public ColorModel getColorModel(int transparency) {
+            return ColorModel.getRGBdefault();
+        }
+
+        @Override
+        public AffineTransform getNormalizingTransform() {
+            return new AffineTransform();
+        }
+
+        @Override
+        public Rectangle getBounds() {
+            return new Rectangle(1920, 1080);
+        }
+    }
+}
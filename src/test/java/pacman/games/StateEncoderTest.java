@@ -0,0 +1,129 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Frames from StateEncoder, applied to a StateDecoder, must reproduce the engine's state
+ * after every tick.
+ */
+class StateEncoderTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"classic", "classic:40", "generated:61x61:30:5"})
+    void decoderFollowsEveryTick(String mazeId) throws IOException {
+        Maze maze = Maze.forId(mazeId);
+        GameEngine engine = new GameEngine(maze, 3);
+        engine.setGhostBehaviour(GhostBehaviour.CHASE_SCATTER);
+        StateEncoder encoder = new StateEncoder(maze, engine.getGhosts().size());
+        StateDecoder decoder = new StateDecoder();
+        ByteBuffer out = ByteBuffer.allocate(encoder.maxFrameSize());
+        Random random = new Random(1);
+
+        // Two games, so the second starts with a requested full frame
+        for (int game = 0; game < 2; game++) {
+            engine.reset(game);
+            engine.start();
+            encoder.requestFull();
+            long fullFrames = decoder.getFullFrames();
+            sendFrame(engine, encoder, decoder, out);
+            assertEquals(fullFrames + 1, decoder.getFullFrames());
+            assertEquals(maze.getId(), decoder.getMaze().getId());
+            assertDecoded(engine, decoder);
+            while (engine.isRunning() && engine.getTick() < 2000) {
+                engine.step(random.nextInt(8) < 4 ? random.nextInt(4) : GameEngine.NO_INPUT);
+                sendFrame(engine, encoder, decoder, out);
+                assertDecoded(engine, decoder);
+            }
+        }
+        assertTrue(decoder.getDeltaFrames() > 0);
+    }
+
+    @Test
+    void deltaFramesAreSmall() throws IOException {
+        GameEngine engine = new GameEngine(7);
+        engine.start();
+        StateEncoder encoder = new StateEncoder(engine.getMaze(), engine.getGhosts().size());
+        ByteBuffer out = ByteBuffer.allocate(encoder.maxFrameSize());
+        encoder.encode(engine, out);
+        int fullSize = out.position();
+        for (int i = 0; i < 100 && engine.isRunning(); i++) {
+            engine.step(GameEngine.NO_INPUT);
+            out.clear();
+            encoder.encode(engine, out);
+            assertTrue(out.position() < fullSize / 2, "Delta frame of " + out.position() + " bytes");
+        }
+    }
+
+    @Test
+    void deltaBeforeFullFrameIsRejected() {
+        GameEngine engine = new GameEngine(1);
+        engine.start();
+        StateEncoder encoder = new StateEncoder(engine.getMaze(), engine.getGhosts().size());
+        ByteBuffer out = ByteBuffer.allocate(encoder.maxFrameSize());
+        encoder.encode(engine, out); // Full
+        engine.step(GameEngine.NO_INPUT);
+        out.clear();
+        encoder.encode(engine, out); // Delta
+        assertThrows(IOException.class, () -> new StateDecoder().apply(body(out)));
+    }
+
+    @Test
+    void truncatedFrameIsRejected() {
+        GameEngine engine = new GameEngine(1);
+        StateEncoder encoder = new StateEncoder(engine.getMaze(), engine.getGhosts().size());
+        ByteBuffer out = ByteBuffer.allocate(encoder.maxFrameSize());
+        encoder.encode(engine, out);
+        ByteBuffer frame = body(out);
+        for (int length = 0; length < frame.limit(); length++) {
+            ByteBuffer truncated = frame.duplicate().limit(length);
+            assertThrows(IOException.class, () -> new StateDecoder().apply(truncated), "Length " + length);
+        }
+    }
+
+    // Encodes the engine's state and applies the frame, checking its length prefix
+    private static void sendFrame(GameEngine engine, StateEncoder encoder, StateDecoder decoder, ByteBuffer out)
+            throws IOException {
+        out.clear();
+        encoder.encode(engine, out);
+        decoder.apply(body(out));
+    }
+
+    private static ByteBuffer body(ByteBuffer out) {
+        ByteBuffer frame = out.duplicate().flip();
+        int length = frame.getInt();
+        assertEquals(frame.remaining(), length);
+        return frame.slice();
+    }
+
+    private static void assertDecoded(GameEngine engine, StateDecoder decoder) {
+        Maze maze = engine.getMaze();
+        String at = "Tick " + engine.getTick();
+        assertEquals(engine.getTick(), decoder.getTick(), at);
+        assertEquals(engine.getScore(), decoder.getScore(), at);
+        assertEquals(engine.getPacMan().lives, decoder.getLives(), at);
+        assertEquals(engine.isRunning(), decoder.isRunning(), at);
+        assertEquals(engine.isGameWon(), decoder.isGameWon(), at);
+        PacMan pacMan = engine.getPacMan();
+        assertEquals(pacMan.y * maze.getCols() + pacMan.x, decoder.getPacManCell(), at);
+        assertEquals(engine.getPelletsRemaining(), decoder.getPelletsRemaining(), at);
+        for (int cell = 0; cell < maze.getCellCount(); cell++) {
+            boolean pellet = engine.getTile(cell / maze.getCols(), cell % maze.getCols()) >= 2;
+            assertEquals(pellet, decoder.hasPellet(cell), at + ", cell " + cell);
+        }
+        GhostStore ghosts = engine.getGhosts();
+        assertEquals(ghosts.size(), decoder.getGhostCount());
+        for (int i = 0; i < ghosts.size(); i++) {
+            assertEquals(ghosts.y[i] * maze.getCols() + ghosts.x[i], decoder.getGhostCell(i), at + ", ghost " + i);
+            assertEquals(ghosts.isFrightened(i), decoder.isGhostFrightened(i), at + ", ghost " + i);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package pacman.games;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Incrementally written observations must equal a full recompute from the games after every step.
+ */
+class VectorEnvironmentTest {
+
+    static Stream<Arguments> environments() {
+        return Stream.of(
+                Arguments.of("classic", Maze.CLASSIC, GhostBehaviour.RANDOM),
+                Arguments.of("generated 61x61", MazeGenerator.generate(61, 61, 12, 4), GhostBehaviour.CHASE_SCATTER));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("environments")
+    void incrementalObservationsMatchAFullRecompute(String name, Maze maze, GhostBehaviour behaviour) {
+        VectorEnvironment environment = new VectorEnvironment(6, maze, behaviour, 400);
+        environment.reset(5);
+        assertObservationsMatch(environment, name + " after reset");
+        int[] actions = new int[environment.getBatchSize()];
+        Random random = new Random(8);
+        int episodes = 0;
+        for (int step = 0; step < 1500; step++) {
+            for (int k = 0; k < actions.length; k++) {
+                actions[k] = random.nextInt(4) == 0 ? random.nextInt(4) : GameEngine.NO_INPUT;
+            }
+            environment.step(actions);
+            assertObservationsMatch(environment, name + " step " + step);
+            for (boolean done : environment.getDones()) {
+                episodes += done ? 1 : 0;
+            }
+        }
+        assertTrue(episodes > 0, "No episode ended");
+    }
+
+    @Test
+    void rewardsAddUpToTheScore() {
+        VectorEnvironment environment = new VectorEnvironment(3, Maze.CLASSIC, GhostBehaviour.RANDOM, 100_000);
+        environment.reset(1);
+        float[] returns = new float[3];
+        Random random = new Random(2);
+        int[] actions = new int[3];
+        for (int step = 0; step < 300; step++) {
+            for (int k = 0; k < actions.length; k++) {
+                actions[k] = random.nextInt(4);
+            }
+            environment.step(actions);
+            for (int k = 0; k < 3; k++) {
+                if (environment.getDones()[k]) {
+                    return; // Keep the sums to single episodes
+                }
+                returns[k] += environment.getRewards()[k];
+                GameEngine game = environment.getGame(k);
+                assertEquals(game.getScore() + VectorEnvironment.LIFE_LOST_REWARD * game.getLivesLost(), returns[k]);
+            }
+        }
+    }
+
+    @Test
+    void sameSeedAndActionsGiveTheSameObservations() {
+        VectorEnvironment first = new VectorEnvironment(4, Maze.CLASSIC, GhostBehaviour.CHASE_SCATTER, 200);
+        VectorEnvironment second = new VectorEnvironment(4, Maze.CLASSIC, GhostBehaviour.CHASE_SCATTER, 200);
+        first.reset(9);
+        second.reset(9);
+        int[] actions = {GameEngine.LEFT, GameEngine.NO_INPUT, GameEngine.UP, GameEngine.RIGHT};
+        for (int step = 0; step < 500; step++) {
+            first.step(actions);
+            second.step(actions);
+            assertArrayEquals(bytes(first.getObservations()), bytes(second.getObservations()), "Step " + step);
+            assertArrayEquals(first.getDones(), second.getDones(), "Step " + step);
+        }
+        assertThrows(IllegalArgumentException.class, () -> first.step(new int[3]));
+    }
+
+    private static void assertObservationsMatch(VectorEnvironment environment, String at) {
+        ByteBuffer observations = environment.getObservations();
+        int cells = environment.getCellCount();
+        for (int k = 0; k < environment.getBatchSize(); k++) {
+            byte[] expected = observe(environment.getGame(k));
+            byte[] actual = new byte[cells];
+            observations.get(k * cells, actual);
+            assertArrayEquals(expected, actual, at + ", game " + k);
+        }
+    }
+
+    // The observation of a game, built from scratch
+    private static byte[] observe(GameEngine game) {
+        int cols = game.getMaze().getCols();
+        byte[] cells = new byte[game.getMaze().getCellCount()];
+        for (int cell = 0; cell < cells.length; cell++) {
+            cells[cell] = (byte) game.getTile(cell / cols, cell % cols);
+        }
+        GhostStore ghosts = game.getGhosts();
+        for (int i = 0; i < ghosts.size(); i++) {
+            int cell = ghosts.y[i] * cols + ghosts.x[i];
+            if (!ghosts.isFrightened(i) || cells[cell] != VectorEnvironment.GHOST) {
+                cells[cell] = ghosts.isFrightened(i) ? VectorEnvironment.FRIGHTENED_GHOST : VectorEnvironment.GHOST;
+            }
+        }
+        cells[game.getPacMan().y * cols + game.getPacMan().x] = VectorEnvironment.PAC_MAN;
+        return cells;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.capacity()];
+        buffer.get(0, bytes);
+        return bytes;
+    }
+}